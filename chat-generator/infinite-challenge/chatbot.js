@@ -115,19 +115,15 @@ function sendCommentToServer(youtubeMessage, client) {
         return;
     }
 
+    // The server takes the sender from the bot's JWT, so the original author is only logged here.
     const chatMessage = {
-        sender: {
-            id: youtubeMessage.authorDetails.channelId,
-            name: youtubeMessage.authorDetails.displayName,
-            profileImageUrl: youtubeMessage.authorDetails.profileImageUrl
-        },
         content: youtubeMessage.snippet.displayMessage,
         streamId: ROOM_ID
     };
 
     const sendDestination = `/publish/${ROOM_ID}`;
     client.send(sendDestination, { 'content-type': 'application/json' }, JSON.stringify(chatMessage));
-    console.log(`[Sent] ${chatMessage.sender.name}: ${chatMessage.content}`);
+    console.log(`[Sent] ${youtubeMessage.authorDetails.displayName}: ${chatMessage.content}`);
 }
 
 // ----------------------------------------------------------------------------
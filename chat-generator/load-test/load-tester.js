@@ -34,12 +34,8 @@ function startSingleClientMessaging(client, userId) {
     const intervalId = setInterval(() => {
         if (client && client.connected) {
             try {
+                // The sender is taken from the JWT subject by the server.
                 const message = {
-                    sender: {
-                        id: `${userId}`,
-                        name: `Load Tester ${userId}`,
-                        profileImageUrl: 'https://uxwing.com/wp-content/themes/uxwing/download/communication-chat-call/chatbot-icon.png'
-                    },
                     content: `(Load Test) Message from client ${userId} at ${new Date().toISOString()}`,
                     streamId: ROOM_ID
                 };
@@ -98,19 +98,15 @@ function sendCommentToServer(chatMessage, client) {
         return;
     }
 
+    // The server takes the sender from the bot's JWT, so the original author is only logged here.
     const messageToSend = {
-        sender: {
-            id: chatMessage.authorDetails.displayName, // Using name as ID as we don't have a unique channelId
-            name: chatMessage.authorDetails.displayName,
-            profileImageUrl: chatMessage.authorDetails.profileImageUrl
-        },
         content: chatMessage.snippet.displayMessage,
         streamId: ROOM_ID
     };
 
     const sendDestination = `/publish/${ROOM_ID}`;
     client.send(sendDestination, { 'content-type': 'application/json' }, JSON.stringify(messageToSend));
-    console.log(`[Sent] ${messageToSend.sender.name}: ${messageToSend.content}`);
+    console.log(`[Sent] ${chatMessage.authorDetails.displayName}: ${messageToSend.content}`);
 }
 
 // ----------------------------------------------------------------------------
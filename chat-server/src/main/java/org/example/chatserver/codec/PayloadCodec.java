@@ -0,0 +1,137 @@
+package org.example.chatserver.codec;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.example.chatserver.config.StreamDestinations;
+import org.example.chatserver.dto.AnalysisResultDto;
+import org.example.chatserver.dto.ChatMessageDto;
+import org.example.chatserver.dto.SenderProfileDto;
+import org.example.chatserver.dto.StreamUserCountUpdateDto;
+import org.example.chatserver.dto.SummaryResultDto;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Encodes broadcast DTOs into the wire encodings supported by {@link PayloadEncoding}.
+ * The CBOR variant writes every DTO as a positional array, so field names are never sent.
+ * The analysis ratios are likewise written as an array of float32 values in {@link AnalysisResultDto#LABELS} order
+ * rather than as a map keyed by the Korean label strings, which made up most of that frame.
+ */
+@Component
+public class PayloadCodec {
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+
+    public PayloadCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = CBORMapper.builder()
+                .addMixIn(ChatMessageDto.class, PositionalMixin.class)
+                .addMixIn(SenderProfileDto.class, PositionalMixin.class)
+                .addMixIn(AnalysisResultDto.class, AnalysisResultMixin.class)
+                .addMixIn(SummaryResultDto.class, PositionalMixin.class)
+                .addMixIn(StreamUserCountUpdateDto.class, PositionalMixin.class)
+                .build();
+    }
+
+    /**
+     * Starts a broadcast whose JSON form is already known (e.g. the payload received from the Redis backplane).
+     * Other encodings are produced lazily and at most once for the broadcast.
+     * @param dto The DTO being broadcast.
+     * @param json The JSON encoding of the DTO.
+     * @return A per-broadcast cache of encoded payloads.
+     */
+    public EncodedPayload prepare(Object dto, String json) {
+        return new EncodedPayload(dto, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] encode(Object dto, PayloadEncoding encoding) throws JsonProcessingException {
+        return switch (encoding) {
+            case JSON -> jsonMapper.writeValueAsBytes(dto);
+            case CBOR -> cborMapper.writeValueAsBytes(dto);
+        };
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    private interface PositionalMixin {
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    private interface AnalysisResultMixin {
+        @JsonSerialize(using = LabelRatiosSerializer.class)
+        Map<String, Double> ratios();
+    }
+
+    /**
+     * Writes a ratio map as one value per known label, in label order; a missing label is 0.
+     * Labels the analyzer adds before {@link AnalysisResultDto#LABELS} is updated are left out.
+     */
+    private static final class LabelRatiosSerializer extends JsonSerializer<Map<String, Double>> {
+        @Override
+        public void serialize(Map<String, Double> ratios, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeStartArray(ratios, AnalysisResultDto.LABELS.size());
+            for (String label : AnalysisResultDto.LABELS) {
+                Double ratio = ratios.get(label);
+                generator.writeNumber(ratio == null ? 0f : ratio.floatValue());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Holds the encodings of a single broadcast so each one is produced only once,
+     * no matter how many destinations or subscribers receive it.
+     */
+    public class EncodedPayload {
+
+        private final Object dto;
+        private final Map<PayloadEncoding, byte[]> encoded = new EnumMap<>(PayloadEncoding.class);
+
+        private EncodedPayload(Object dto, byte[] json) {
+            this.dto = dto;
+            this.encoded.put(PayloadEncoding.JSON, json);
+        }
+
+        public byte[] bytes(PayloadEncoding encoding) throws JsonProcessingException {
+            byte[] bytes = encoded.get(encoding);
+            if (bytes == null) {
+                bytes = encode(dto, encoding);
+                encoded.put(encoding, bytes);
+            }
+            return bytes;
+        }
+
+        /**
+         * Builds a broker message carrying this payload in the given encoding.
+         * A fresh message is required per send because the template seals its headers.
+         * @param encoding The payload encoding.
+         * @param kind The frame kind header for multiplexed destinations, or null.
+         */
+        public Message<byte[]> toMessage(PayloadEncoding encoding, String kind) throws JsonProcessingException {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(encoding.getContentType());
+            if (encoding != PayloadEncoding.JSON) {
+                accessor.setNativeHeader(PayloadEncoding.HEADER, encoding.getToken());
+            }
+            if (kind != null) {
+                accessor.setNativeHeader(StreamDestinations.KIND_HEADER, kind);
+            }
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(bytes(encoding), accessor.getMessageHeaders());
+        }
+    }
+}
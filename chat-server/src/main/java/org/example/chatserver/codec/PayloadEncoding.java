@@ -0,0 +1,44 @@
+package org.example.chatserver.codec;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Wire encodings a STOMP client can negotiate for broadcast payloads.
+ * The encoding is requested through the {@code payload-encoding} header on CONNECT (session default)
+ * or SUBSCRIBE (per subscription override).
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PayloadEncoding {
+    JSON("json", MimeTypeUtils.APPLICATION_JSON, ""),
+    // Binary frames are only emitted by Spring for application/octet-stream bodies,
+    // so the CBOR variant is flagged through the payload-encoding header instead of the content-type.
+    CBOR("cbor", MimeTypeUtils.APPLICATION_OCTET_STREAM, ".cbor");
+
+    public static final String HEADER = "payload-encoding";
+
+    private final String token;
+    private final MimeType contentType;
+    private final String destinationSuffix;
+
+    /**
+     * Resolves the encoding requested in a STOMP header value.
+     * @param value The raw header value, may be null.
+     * @param fallback The encoding to use when the value is missing or unknown.
+     * @return The matching encoding, or the fallback.
+     */
+    public static PayloadEncoding from(String value, PayloadEncoding fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        for (PayloadEncoding encoding : values()) {
+            if (encoding.token.equalsIgnoreCase(value.trim())) {
+                return encoding;
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.chatserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Duplicate suppression for chat sends that carry a client message ID ({@code app.dedup.*}).
+ * Each stream keeps two Bloom filter generations of {@code window-ms} each, sized for
+ * {@code expected-ids-per-window}, next to an exact LRU of the last {@code exact-entries} IDs.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.dedup")
+public class DedupProperties {
+
+    private boolean enabled = true;
+    // An ID is remembered for at least this long, and at most twice as long.
+    private long windowMs = 60_000;
+    private int expectedIdsPerWindow = 2000;
+    // Covers about ten seconds of a stream sending 100 messages per second, which is enough for reconnect retries.
+    private int exactEntries = 1024;
+    // Longer IDs are not deduplicated, so clients cannot grow the exact LRU with large keys.
+    private int maxIdLength = 64;
+}
@@ -0,0 +1,75 @@
+package org.example.chatserver.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Simple broker subscription registry that honours the {@code kinds} header on subscriptions to the
+ * multiplexed stream destination. Subscriptions without the header receive every kind, so the
+ * lookup only pays for filtering when at least one filtered subscription exists.
+ */
+public class KindFilteringSubscriptionRegistry extends DefaultSubscriptionRegistry {
+
+    // sessionId -> (subscriptionId -> accepted kinds)
+    private final Map<String, Map<String, Set<String>>> kindFilters = new ConcurrentHashMap<>();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId, String destination, Message<?> message) {
+        super.addSubscriptionInternal(sessionId, subscriptionId, destination, message);
+        String kinds = NativeMessageHeaderAccessor.getFirstNativeHeader(StreamDestinations.KINDS_FILTER_HEADER, message.getHeaders());
+        if (StringUtils.hasText(kinds) && StreamDestinations.isMultiplexed(destination)) {
+            kindFilters.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
+                    .put(subscriptionId, StringUtils.commaDelimitedListToSet(kinds.replace(" ", "")));
+        }
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        super.removeSubscriptionInternal(sessionId, subscriptionId, message);
+        Map<String, Set<String>> filters = kindFilters.get(sessionId);
+        if (filters != null) {
+            filters.remove(subscriptionId);
+            if (filters.isEmpty()) {
+                kindFilters.remove(sessionId);
+            }
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        super.unregisterAllSubscriptions(sessionId);
+        kindFilters.remove(sessionId);
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        MultiValueMap<String, String> subscriptions = super.findSubscriptionsInternal(destination, message);
+        if (kindFilters.isEmpty() || subscriptions.isEmpty()) {
+            return subscriptions;
+        }
+        String kind = NativeMessageHeaderAccessor.getFirstNativeHeader(StreamDestinations.KIND_HEADER, message.getHeaders());
+        if (kind == null) {
+            return subscriptions;
+        }
+
+        MultiValueMap<String, String> accepted = new LinkedMultiValueMap<>(subscriptions.size());
+        subscriptions.forEach((sessionId, subscriptionIds) -> {
+            Map<String, Set<String>> filters = kindFilters.get(sessionId);
+            for (String subscriptionId : subscriptionIds) {
+                Set<String> kinds = filters != null ? filters.get(subscriptionId) : null;
+                if (kinds == null || kinds.contains(kind)) {
+                    accepted.add(sessionId, subscriptionId);
+                }
+            }
+        });
+        return accepted;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.chatserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token-bucket limits for chat sends ({@code app.rate-limit.*}).
+ * Buckets live in Redis and are shared by every chat-server instance; each instance leases
+ * {@code lease-size} tokens at a time so most sends are admitted without a Redis round trip.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Unused leased tokens are dropped after this long, bounding how far a node can run ahead of Redis.
+    private long leaseTtlMs = 2000;
+    // After a failed Redis call, leases are granted locally for this long before Redis is tried again.
+    private long failOpenMs = 5000;
+    private Bucket user = new Bucket(10, 5, 3);
+    private Bucket stream = new Bucket(2000, 1000, 100);
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        private int capacity;
+        private double refillPerSecond;
+        private int leaseSize;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, double refillPerSecond, int leaseSize) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.leaseSize = leaseSize;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.chatserver.config;
 
+import org.example.chatserver.jwt.TokenRevocationList;
+import org.example.chatserver.service.SenderProfileCache;
 import org.example.chatserver.service.RedisSubscriberService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -18,10 +20,15 @@ public class RedisConfig {
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(
             RedisConnectionFactory connectionFactory,
-            MessageListenerAdapter listenerAdapter) {
+            MessageListenerAdapter listenerAdapter,
+            TokenRevocationList tokenRevocationList,
+            SenderProfileCache senderProfileCache) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
-        // Listeners will be added dynamically at runtime by RedisSubscriptionManager
+        // Stream listeners will be added dynamically at runtime by RedisSubscriptionManager
+        container.addMessageListener(tokenRevocationList, new ChannelTopic(TokenRevocationList.CHANNEL));
+        // User changes announced by user-server, dropped from the local sender profile cache
+        container.addMessageListener(senderProfileCache, new ChannelTopic(SenderProfileCache.CHANNEL));
         return container;
     }
 
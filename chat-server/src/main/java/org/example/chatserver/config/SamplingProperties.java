@@ -0,0 +1,37 @@
+package org.example.chatserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thresholds for sampling chat fan-out on very busy streams ({@code app.sampling.*}).
+ * The defaults apply to every stream; entries under {@code streams} override them per stream ID.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.sampling")
+public class SamplingProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    private Map<String, Limit> streams = new HashMap<>();
+
+    public Limit limitFor(String streamId) {
+        return streams.getOrDefault(streamId, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        // Incoming chat rate (messages/sec) above which fan-out is sampled.
+        private int thresholdPerSecond = 50;
+        // Messages/sec delivered to each viewer while sampling.
+        private int maxPerSecond = 20;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.chatserver.config;
+
+/**
+ * Builds and parses the per-stream STOMP destinations.
+ * <ul>
+ *     <li>{@code /topic/stream/{id}} carries every kind of frame, tagged with a {@code kind} header.</li>
+ *     <li>{@code /topic/stream/{id}/{kind}} carries a single kind (kept for existing clients).</li>
+ * </ul>
+ * Either form may carry an encoding suffix such as {@code .cbor}.
+ */
+public final class StreamDestinations {
+
+    public static final String KIND_HEADER = "kind";
+    // Subscription header restricting the multiplexed destination to a comma-separated list of kinds.
+    public static final String KINDS_FILTER_HEADER = "kinds";
+
+    public static final String KIND_MESSAGE = "message";
+    public static final String KIND_ANALYSIS = "analysis";
+    public static final String KIND_SUMMARY = "summary";
+    public static final String KIND_USER_COUNT = "user-count";
+    // Sender profiles, sent when a sender first appears in a stream on this instance.
+    public static final String KIND_PROFILE = "profile";
+
+    private StreamDestinations() {
+    }
+
+    public static String multiplexed(String streamId) {
+        return WebSocketConstants.STREAM_TOPIC_PREFIX + streamId;
+    }
+
+    public static String ofKind(String streamId, String kind) {
+        return WebSocketConstants.STREAM_TOPIC_PREFIX + streamId + "/" + kind;
+    }
+
+    /**
+     * Extracts the stream ID from a stream destination without using a regex.
+     * @param destination The STOMP destination.
+     * @return The stream ID, or null if the destination is not a stream destination.
+     */
+    public static String streamIdOf(String destination) {
+        if (destination == null || !destination.startsWith(WebSocketConstants.STREAM_TOPIC_PREFIX)) {
+            return null;
+        }
+        int start = WebSocketConstants.STREAM_TOPIC_PREFIX.length();
+        int end = start;
+        while (end < destination.length() && destination.charAt(end) != '/' && destination.charAt(end) != '.') {
+            end++;
+        }
+        return end > start ? destination.substring(start, end) : null;
+    }
+
+    /**
+     * @return True if the destination is the multiplexed destination of a stream (with or without an encoding suffix).
+     */
+    public static boolean isMultiplexed(String destination) {
+        String streamId = streamIdOf(destination);
+        return streamId != null && destination.indexOf('/', WebSocketConstants.STREAM_TOPIC_PREFIX.length()) < 0;
+    }
+}
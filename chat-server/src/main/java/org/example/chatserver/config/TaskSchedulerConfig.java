@@ -2,9 +2,12 @@ package org.example.chatserver.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
+@EnableScheduling
 public class TaskSchedulerConfig {
 
     @Bean
@@ -15,4 +18,25 @@ public class TaskSchedulerConfig {
         scheduler.initialize();
         return scheduler;
     }
+
+    // Used by @Scheduled methods, kept apart from the STOMP heartbeat scheduler.
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("app-scheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // Loads sender profiles from Redis off the pub/sub listener and inbound channel threads.
+    @Bean
+    public ThreadPoolTaskExecutor senderProfileExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("sender-profile-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -2,9 +2,13 @@ package org.example.chatserver.config;
 
 import lombok.RequiredArgsConstructor;
 import org.example.chatserver.interceptor.AuthChannelInterceptor;
+import org.example.chatserver.interceptor.NativeTransportHandshakeInterceptor;
+import org.example.chatserver.interceptor.PayloadEncodingInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -20,6 +24,7 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final AuthChannelInterceptor authChannelInterceptor;
+    private final PayloadEncodingInterceptor payloadEncodingInterceptor;
     private final ThreadPoolTaskScheduler webSocketTaskScheduler;
 
     /**
@@ -29,7 +34,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // frontend code : this.stompClient.subscribe(/topic/${this.streamId}, message => { ...
-        registry.enableSimpleBroker(WebSocketConstants.TOPIC_PREFIX)
+        // "/queue" carries per-session replies such as rate limit rejections (frontend : subscribe("/user/queue/errors")).
+        registry.enableSimpleBroker(WebSocketConstants.TOPIC_PREFIX, WebSocketConstants.QUEUE_PREFIX)
                 .setHeartbeatValue(new long[]{20000, 20000})
                 .setTaskScheduler(webSocketTaskScheduler);
         
@@ -38,6 +44,24 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes(WebSocketConstants.APP_PREFIX);
     }
 
+    /**
+     * Swaps the simple broker's subscription registry for one that applies the per-subscription
+     * {@code kinds} filter of the multiplexed stream destination.
+     * The registry is not exposed by {@link MessageBrokerRegistry}, so it is set on the handler bean directly.
+     */
+    @Bean
+    public static BeanPostProcessor kindFilteringSubscriptionRegistryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler handler) {
+                    handler.setSubscriptionRegistry(new KindFilteringSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
+
     /**
      * Registers the STOMP endpoints.
      * @param registry The registry for STOMP endpoint configuration.
@@ -47,8 +71,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Registers the "/ws" endpoint, enabling SockJS fallback options so that alternate transports can be used if WebSocket is not available.
         // frontend code :  const socket = new SockJS(${process.env.VUE_APP_BACKEND_URL}/ws)
         registry.addEndpoint(WebSocketConstants.WEBSOCKET_ENDPOINT)
-                .setAllowedOriginPatterns("https://www.live-streaming.store", "https://live-chat-analyzer.vercel.app", "http://localhost:8080", "http://localhost:3000", "null") // localhost:3000
+                .setAllowedOriginPatterns(WebSocketConstants.ALLOWED_ORIGIN_PATTERNS)
                 .withSockJS();
+
+        // Plain WebSocket endpoint. Only sessions opened here can negotiate binary payload encodings.
+        // frontend code :  const socket = new WebSocket(`${process.env.VUE_APP_CHAT_SERVER_URL}/ws-native`)
+        registry.addEndpoint(WebSocketConstants.NATIVE_WEBSOCKET_ENDPOINT)
+                .setAllowedOriginPatterns(WebSocketConstants.ALLOWED_ORIGIN_PATTERNS)
+                .addInterceptors(new NativeTransportHandshakeInterceptor());
     }
 
     /**
@@ -57,7 +87,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        // Registers the custom channel interceptor to validate JWT tokens on CONNECT messages.
-        registration.interceptors(authChannelInterceptor);
+        // Registers the custom channel interceptor to validate JWT tokens on CONNECT messages,
+        // followed by the payload encoding negotiation for SUBSCRIBE messages.
+        registration.interceptors(authChannelInterceptor, payloadEncodingInterceptor);
     }
 }
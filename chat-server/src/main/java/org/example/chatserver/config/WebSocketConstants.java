@@ -2,7 +2,22 @@ package org.example.chatserver.config;
 
 public class WebSocketConstants {
     public static final String WEBSOCKET_ENDPOINT = "/ws";
+    // Plain WebSocket endpoint (no SockJS) for clients that want binary frames.
+    public static final String NATIVE_WEBSOCKET_ENDPOINT = "/ws-native";
     public static final String TOPIC_PREFIX = "/topic";
+    public static final String QUEUE_PREFIX = "/queue";
+    // Per-session replies, subscribed to by clients as "/user/queue/errors".
+    public static final String USER_ERROR_QUEUE = QUEUE_PREFIX + "/errors";
     public static final String APP_PREFIX = "/publish";
-    
+    public static final String STREAM_TOPIC_PREFIX = TOPIC_PREFIX + "/stream/";
+    // Optional SEND header with a client-generated message ID, used to drop resubmitted messages.
+    public static final String CLIENT_MESSAGE_ID_HEADER = "client-message-id";
+
+    public static final String[] ALLOWED_ORIGIN_PATTERNS = {
+            "https://www.live-streaming.store", "https://live-chat-analyzer.vercel.app", "http://localhost:8080", "http://localhost:3000", "null"
+    };
+
+    // Session attribute keys
+    public static final String BINARY_CAPABLE_ATTRIBUTE = "binaryCapable";
+    public static final String PAYLOAD_ENCODING_ATTRIBUTE = "payloadEncoding";
 }
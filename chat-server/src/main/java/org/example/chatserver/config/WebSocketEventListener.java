@@ -3,14 +3,13 @@ package org.example.chatserver.config;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.chatserver.service.RedisSubscriptionManager;
+import org.example.chatserver.service.StreamDestinationRegistry;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.springframework.web.socket.messaging.SessionSubscribeEvent;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
 @Slf4j
 @Component
@@ -18,8 +17,7 @@ import java.util.regex.Pattern;
 public class WebSocketEventListener {
 
     private final RedisSubscriptionManager redisSubscriptionManager;
-
-    private static final Pattern STREAM_ID_PATTERN = Pattern.compile("/topic/stream/([^/]+)/.*");
+    private final StreamDestinationRegistry streamDestinationRegistry;
 
     @EventListener
     public void handleSessionSubscribeEvent(SessionSubscribeEvent event) {
@@ -33,23 +31,26 @@ public class WebSocketEventListener {
             return;
         }
 
-        Matcher matcher = STREAM_ID_PATTERN.matcher(destination);
-        if (matcher.matches()) {
-            String streamId = matcher.group(1);
-            redisSubscriptionManager.subscribe(streamId, sessionId);
+        // Matches both the multiplexed /topic/stream/{id} and the per-kind /topic/stream/{id}/{kind} destinations.
+        String streamId = StreamDestinations.streamIdOf(destination);
+        if (streamId != null) {
+            redisSubscriptionManager.subscribe(streamId, sessionId, headerAccessor.getSubscriptionId());
         }
     }
 
+    @EventListener
+    public void handleSessionUnsubscribeEvent(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        log.info("Session {} unsubscribed from subscription {}", headerAccessor.getSessionId(), headerAccessor.getSubscriptionId());
+        redisSubscriptionManager.unsubscribe(headerAccessor.getSessionId(), headerAccessor.getSubscriptionId());
+    }
+
     @EventListener
     public void handleSessionDisconnectEvent(SessionDisconnectEvent event) {
         String sessionId = event.getSessionId();
         log.info("Session {} disconnected", sessionId);
 
-        // Iterate through all currently managed streams to find where this session was subscribed
-        // This is a simplified approach; a more robust solution might track session-to-stream mappings more directly
-        // in RedisSubscriptionManager or in a separate session management component.
-        redisSubscriptionManager.getAllStreamIds().forEach(streamId ->
-            redisSubscriptionManager.unsubscribe(streamId, sessionId)
-        );
+        redisSubscriptionManager.unsubscribeSession(sessionId);
+        streamDestinationRegistry.unregisterSession(sessionId);
     }
 }
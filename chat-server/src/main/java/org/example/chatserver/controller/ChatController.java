@@ -3,12 +3,30 @@ package org.example.chatserver.controller;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.chatserver.config.WebSocketConstants;
 import org.example.chatserver.dto.ChatMessageDto;
+import org.example.chatserver.dto.ChatRejectionDto;
+import org.example.chatserver.dto.SenderProfileDto;
+import org.example.chatserver.exception.ChatRateLimitException;
+import org.example.chatserver.service.ChatMessageDeduplicator;
+import org.example.chatserver.service.ChatRateLimiter;
 import org.example.chatserver.service.KafkaProducerService;
+import org.example.chatserver.service.SenderProfileCache;
+import org.example.chatserver.service.StreamSenderDirectory;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller for handling chat messages via WebSocket.
  */
@@ -21,16 +39,98 @@ public class ChatController {
     private String rawChatsTopic;
 
     private final KafkaProducerService producerService;
+    private final ChatRateLimiter chatRateLimiter;
+    private final ChatMessageDeduplicator chatMessageDeduplicator;
+    private final StreamSenderDirectory streamSenderDirectory;
+    private final SenderProfileCache senderProfileCache;
 
     /**
      * Handles incoming chat messages from clients.
      * Messages sent to the "/publish/{roomId}" destination are routed to this method.
+     * The sender is the authenticated user of the session; messages from anonymous sessions are dropped.
+     * A message without a stream ID, or whose stream ID differs from the room it was sent to, is dropped.
+     * A message repeating a client message ID the sender already used in the stream is dropped as a resubmission.
+     * @param roomId The stream ID from the destination.
      * @param chatMessageDto The chat message payload.
+     * @param principal The authenticated user, or null for anonymous sessions.
+     * @param sessionId The WebSocket session ID.
+     * @param clientMessageId The optional client-generated message ID.
      */
     @MessageMapping("/{roomId}")
-    public void sendMessage(@Payload ChatMessageDto chatMessageDto) {
+    public void sendMessage(
+            @DestinationVariable String roomId,
+            @Payload ChatMessageDto chatMessageDto,
+            Principal principal,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId,
+            @Header(name = WebSocketConstants.CLIENT_MESSAGE_ID_HEADER, required = false) String clientMessageId
+    ) {
         log.info("Received chat message from client: {}", chatMessageDto); // Log the incoming message
+        if (principal == null) {
+            log.debug("Dropped chat message from anonymous session {}", sessionId);
+            return;
+        }
+        // The stream keys the dedup window, the rate limit and the Kafka record, so it must name the room sent to.
+        if (!roomId.equals(chatMessageDto.streamId())) {
+            log.debug("Dropped chat message for stream {} sent to room {} by session {}", chatMessageDto.streamId(), roomId, sessionId);
+            return;
+        }
+        // Duplicates are dropped before the rate limiter, so a resubmission does not spend the sender's tokens.
+        if (!chatMessageDeduplicator.firstSeen(chatMessageDto.streamId(), principal.getName(), clientMessageId)) {
+            log.debug("Dropped duplicate chat message {} from user {}", clientMessageId, principal.getName());
+            return;
+        }
+        try {
+            chatRateLimiter.acquire(principal.getName(), chatMessageDto.streamId());
+        } catch (ChatRateLimitException e) {
+            // The message was not accepted, so its retry must not be taken for a duplicate.
+            chatMessageDeduplicator.forget(chatMessageDto.streamId(), principal.getName(), clientMessageId);
+            throw e;
+        }
         // publish to kafka
-        producerService.sendMessage(rawChatsTopic, chatMessageDto);
+        producerService.sendMessage(rawChatsTopic, chatMessageDto.withSenderId(principal.getName()));
+    }
+
+    /**
+     * Replies once, to the subscribing session only, with the profiles of the stream's recent senders,
+     * so a viewer joining mid-conversation can name them. Later senders are announced on the stream's
+     * "profile" destination when they first appear.
+     * Clients subscribe to "/publish/{roomId}/profiles".
+     * The reply is sent once every lookup has completed, so the inbound channel thread never waits for Redis.
+     * @param roomId The stream ID.
+     * @return The stored profiles of the senders this instance has recently seen in the stream.
+     */
+    @SubscribeMapping("/{roomId}/profiles")
+    public CompletableFuture<List<SenderProfileDto>> recentSenderProfiles(@DestinationVariable String roomId) {
+        // Start every lookup at once, so misses are loaded in parallel.
+        List<CompletableFuture<SenderProfileDto>> profiles = streamSenderDirectory.recentSenders(roomId).stream()
+                .map(senderProfileCache::resolveAsync)
+                .toList();
+        return CompletableFuture.allOf(profiles.toArray(CompletableFuture[]::new))
+                .thenApply(done -> profiles.stream()
+                        .map(CompletableFuture::join)
+                        .filter(profile -> !SenderProfileCache.isPlaceholder(profile))
+                        .toList());
+    }
+
+    /**
+     * Tells the sender that a message was rejected by the rate limiter and when it may retry.
+     * The reply goes to the sending session only, on "/user/queue/errors". The session stays open.
+     * @param exception The rate limit rejection.
+     * @param receiptId The receipt header of the rejected SEND frame, echoed back for correlation.
+     * @return The rejection details.
+     */
+    @MessageExceptionHandler
+    @SendToUser(destinations = WebSocketConstants.USER_ERROR_QUEUE, broadcast = false)
+    public ChatRejectionDto handleRateLimit(
+            ChatRateLimitException exception,
+            @Header(name = "receipt", required = false) String receiptId
+    ) {
+        log.debug("Rejected chat message: {}", exception.getMessage());
+        return ChatRejectionDto.builder()
+                .reason("rate-limited")
+                .limit(exception.getLimit())
+                .retryAfterMs(exception.getRetryAfterMs())
+                .receiptId(receiptId)
+                .build();
     }
 }
@@ -1,5 +1,6 @@
 package org.example.chatserver.dto;
 
+import java.util.List;
 import java.util.Map;
 
 public record AnalysisResultDto(
@@ -7,4 +8,6 @@ public record AnalysisResultDto(
     int totalCount,
     Map<String, Double> ratios
 ) {
+    // The analyzer's labels, in the order of its CANDIDATE_LABELS (infra/flink/sentiment_analyzer.py).
+    public static final List<String> LABELS = List.of("칭찬", "비난", "웃음", "질문", "조언");
 }
@@ -1,27 +1,24 @@
 package org.example.chatserver.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 /**
- * Data Transfer Object for a chat message, using nested records for a concise and immutable structure.
+ * Data Transfer Object for a chat message, as sent through Kafka, Redis and to viewers.
+ * Clients send only the content and stream ID; the sender is taken from the authenticated session,
+ * and anything a client puts in its place (such as the former {@code sender} object) is ignored.
+ * Viewers resolve {@code senderId} to a name and picture with {@link SenderProfileDto} frames.
  *
- * @param sender   Information about the message sender.
+ * @param senderId The user ID of the sender, set by the server.
  * @param content  The text content of the message.
  * @param streamId The ID of the stream or chat room.
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public record ChatMessageDto(
-        SenderInfo sender,
+        String senderId,
         String content,
         String streamId
 ) {
-    /**
-     * A nested record to hold information about the sender.
-     *
-     * @param id              The unique identifier of the sender.
-     * @param name            The display name of the sender.
-     * @param profileImageUrl The URL for the sender's profile image.
-     */
-    public record SenderInfo(
-            String id,
-            String name,
-            String profileImageUrl
-    ) {}
+    public ChatMessageDto withSenderId(String senderId) {
+        return new ChatMessageDto(senderId, content, streamId);
+    }
 }
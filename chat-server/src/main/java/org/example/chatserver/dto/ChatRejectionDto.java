@@ -0,0 +1,20 @@
+package org.example.chatserver.dto;
+
+import lombok.Builder;
+
+/**
+ * Sent to the sender's {@code /user/queue/errors} when a chat message is rejected.
+ *
+ * @param reason       Machine-readable rejection reason.
+ * @param limit        The limit that rejected the message, if any.
+ * @param retryAfterMs How long the client should wait before sending again.
+ * @param receiptId    The {@code receipt} header of the rejected SEND frame, if the client set one.
+ */
+@Builder
+public record ChatRejectionDto(
+        String reason,
+        String limit,
+        long retryAfterMs,
+        String receiptId
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.chatserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Display information of a chat sender, sent to viewers once instead of with every message.
+ * The name and image are null for users without a stored profile.
+ *
+ * @param id              The user ID, as used in {@link ChatMessageDto#senderId()}.
+ * @param name            The display name of the sender.
+ * @param profileImageUrl The URL for the sender's profile image.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SenderProfileDto(
+        String id,
+        String name,
+        String profileImageUrl
+) {
+}
@@ -0,0 +1,17 @@
+package org.example.chatserver.dto;
+
+import java.util.Map;
+
+/**
+ * Per-stream WebSocket subscriber counts of one chat-server instance, published on the
+ * {@code viewer-counts:reports} channel. A full report replaces everything previously reported by the
+ * instance; otherwise only streams whose count changed are listed, with their new absolute count
+ * (0 when the last subscriber left).
+ */
+public record SubscriberCountReportDto(
+        String instanceId,
+        long sequence,
+        boolean full,
+        Map<String, Integer> counts
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.chatserver.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a chat send exceeds the per-user or per-stream rate limit.
+ */
+@Getter
+public class ChatRateLimitException extends RuntimeException {
+
+    private final String limit;
+    private final long retryAfterMs;
+
+    public ChatRateLimitException(String limit, long retryAfterMs) {
+        super("Chat rate limit exceeded: " + limit);
+        this.limit = limit;
+        this.retryAfterMs = retryAfterMs;
+    }
+}
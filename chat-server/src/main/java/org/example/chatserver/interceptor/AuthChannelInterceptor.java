@@ -1,7 +1,11 @@
 package org.example.chatserver.interceptor;
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.example.chatserver.jwt.JwtPrincipal;
 import org.example.chatserver.jwt.JwtUtil;
+import org.example.chatserver.jwt.TokenRevocationList;
+import org.example.chatserver.service.SenderProfileCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.Message;
@@ -24,6 +28,8 @@ import java.util.Optional;
 public class AuthChannelInterceptor implements ChannelInterceptor {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+    private final SenderProfileCache senderProfileCache;
     private static final Logger log = LoggerFactory.getLogger(AuthChannelInterceptor.class);
 
     @Override
@@ -55,19 +61,30 @@ public class AuthChannelInterceptor implements ChannelInterceptor {
 
         String token = tokenOptional.get();
 
-        // Validate the token.
-        if (jwtUtil.validateToken(token)) {
-            String userId = jwtUtil.getUserIdFromToken(token);
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    userId, null, Collections.singleton(new SimpleGrantedAuthority("USER"))
-            );
-
-            // Set the user for the WebSocket session.
-            accessor.setUser(authentication);
-            log.info("User '{}' successfully connected via WebSocket.", userId);
-        } else {
-            log.warn("WebSocket connection failed: Invalid JWT token.");
+        // Verify the token once; repeated CONNECTs with the same token are served from the verified-token cache.
+        JwtPrincipal principal;
+        try {
+            principal = jwtUtil.resolvePrincipal(token);
+        } catch (JwtException e) {
+            log.warn("WebSocket connection failed: Invalid JWT token. {}", e.getMessage());
             throw new MessagingException("Invalid JWT token");
         }
+
+        // Revocations are mirrored locally from Redis, so this check costs no round trip.
+        if (tokenRevocationList.isRevoked(principal.tokenId())) {
+            log.warn("WebSocket connection failed: Revoked JWT token for user '{}'.", principal.userId());
+            throw new MessagingException("Revoked JWT token");
+        }
+        String userId = principal.userId();
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userId, null, Collections.singleton(new SimpleGrantedAuthority("USER"))
+        );
+
+        // Set the user for the WebSocket session.
+        accessor.setUser(authentication);
+        // Warm the profile cache so this user's first message is announced without a Redis read.
+        senderProfileCache.prefetch(userId);
+        log.info("User '{}' successfully connected via WebSocket.", userId);
     }
 }
\ No newline at end of file
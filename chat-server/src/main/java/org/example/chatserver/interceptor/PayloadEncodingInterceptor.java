@@ -0,0 +1,87 @@
+package org.example.chatserver.interceptor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.chatserver.codec.PayloadEncoding;
+import org.example.chatserver.config.StreamDestinations;
+import org.example.chatserver.config.WebSocketConstants;
+import org.example.chatserver.service.StreamDestinationRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Negotiates the payload encoding of stream subscriptions.
+ * A client may send {@code payload-encoding: cbor} on CONNECT to set a session default, or on SUBSCRIBE
+ * to choose per subscription. Subscriptions that end up with a non-JSON encoding are moved to the
+ * encoding-specific variant of their destination (e.g. {@code /topic/stream/1/message.cbor}).
+ * Every stream subscription is recorded in the {@link StreamDestinationRegistry} under its final destination.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PayloadEncodingInterceptor implements ChannelInterceptor {
+
+    private final StreamDestinationRegistry streamDestinationRegistry;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> rememberSessionEncoding(accessor);
+            case SUBSCRIBE -> negotiateSubscription(accessor);
+            case UNSUBSCRIBE -> streamDestinationRegistry.unregister(accessor.getSessionId(), accessor.getSubscriptionId());
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void rememberSessionEncoding(StompHeaderAccessor accessor) {
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        String requested = accessor.getFirstNativeHeader(PayloadEncoding.HEADER);
+        if (sessionAttributes != null && requested != null) {
+            sessionAttributes.put(WebSocketConstants.PAYLOAD_ENCODING_ATTRIBUTE, PayloadEncoding.from(requested, PayloadEncoding.JSON));
+        }
+    }
+
+    private void negotiateSubscription(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        String streamId = StreamDestinations.streamIdOf(destination);
+        if (streamId == null) {
+            return;
+        }
+
+        PayloadEncoding encoding = negotiateEncoding(accessor);
+        if (encoding != PayloadEncoding.JSON) {
+            destination = destination + encoding.getDestinationSuffix();
+            accessor.setDestination(destination);
+        }
+        streamDestinationRegistry.register(accessor.getSessionId(), accessor.getSubscriptionId(), streamId, destination);
+    }
+
+    private PayloadEncoding negotiateEncoding(StompHeaderAccessor accessor) {
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        if (sessionAttributes == null) {
+            return PayloadEncoding.JSON;
+        }
+        PayloadEncoding sessionDefault = (PayloadEncoding) sessionAttributes.getOrDefault(
+                WebSocketConstants.PAYLOAD_ENCODING_ATTRIBUTE, PayloadEncoding.JSON);
+        PayloadEncoding encoding = PayloadEncoding.from(accessor.getFirstNativeHeader(PayloadEncoding.HEADER), sessionDefault);
+        if (encoding != PayloadEncoding.JSON && !Boolean.TRUE.equals(sessionAttributes.get(WebSocketConstants.BINARY_CAPABLE_ATTRIBUTE))) {
+            log.debug("Session {} requested {} payloads over a text-only transport; keeping JSON", accessor.getSessionId(), encoding);
+            return PayloadEncoding.JSON;
+        }
+        return encoding;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.chatserver.jwt;
+
+/**
+ * Verified identity carried by an access token.
+ *
+ * @param userId  The user ID (token subject).
+ * @param tokenId The {@code jti} claim used for revocation; null for tokens issued without one.
+ */
+public record JwtPrincipal(
+        String userId,
+        String tokenId
+) {
+}
@@ -2,12 +2,17 @@ package org.example.chatserver.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -20,7 +25,20 @@ public class JwtUtil {
 
     @Value("${jwt.secret}")
     private String secret;
+    @Value("${jwt.cache.max-size:100000}")
+    private int cacheMaxSize;
     private SecretKey secretKey;
+    // JwtParser is immutable and thread-safe, so a single instance is shared by every verification.
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private final MeterRegistry meterRegistry;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     /**
      * Initializes the secret key after the bean has been constructed.
@@ -28,32 +46,53 @@ public class JwtUtil {
     @PostConstruct
     protected void init() {
         secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        verifiedTokenCache = new VerifiedTokenCache(cacheMaxSize);
+
+        cacheHits = Counter.builder("jwt.verification.cache")
+                .description("Token verifications served from the verified-token cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        cacheMisses = Counter.builder("jwt.verification.cache")
+                .description("Token verifications that required a signature check")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("jwt.verification.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                .description("Number of verified tokens currently cached")
+                .register(meterRegistry);
     }
 
     /**
-     * Validates the given JWT token.
-     * @param token The token to validate.
-     * @return True if the token is valid, otherwise false.
+     * Verifies the token and returns its principal, verifying the signature at most once per token.
+     * Tokens seen before are answered from the verified-token cache until they expire, which keeps
+     * reconnect storms from repeating the HMAC check for every session.
+     * @param token The token to verify.
+     * @return The user ID (subject) and token ID ({@code jti}) of the token.
+     * @throws JwtException if the token is invalid or expired.
      */
-    public boolean validateToken(String token) {
-        try {
-            getClaimsFromToken(token);
-            return true;
-        } catch (io.jsonwebtoken.JwtException e) {
-            log.error("Invalid JWT: {}", e.getMessage());
-            return false;
+    public JwtPrincipal resolvePrincipal(String token) throws JwtException {
+        long now = System.currentTimeMillis();
+        VerifiedTokenCache.VerifiedToken cached = verifiedTokenCache.get(token, now);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached.principal();
         }
+
+        cacheMisses.increment();
+        Claims claims = getClaimsFromToken(token);
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), claims.getId());
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verifiedTokenCache.put(new VerifiedTokenCache.VerifiedToken(token, principal, expiration.getTime()), now);
+        }
+        return principal;
     }
 
-    /**
-     * Extracts the username (which is the user ID in this context) from the token.
-     * This method is kept for compatibility with the AuthChannelInterceptor.
-     * @param token The token to parse.
-     * @return The username (user ID) as a String.
-     */
-    // This method is kept for compatibility with the AuthChannelInterceptor
-    public String getUserIdFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpiredTokens() {
+        verifiedTokenCache.purgeExpired(System.currentTimeMillis());
     }
 
     /**
@@ -64,9 +103,7 @@ public class JwtUtil {
      */
     public Claims getClaimsFromToken(String token) throws JwtException {
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
+            return parser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
@@ -81,4 +118,4 @@ public class JwtUtil {
             throw new io.jsonwebtoken.JwtException("JWT claims string is empty", e);
         }
     }
-}
\ No newline at end of file
+}
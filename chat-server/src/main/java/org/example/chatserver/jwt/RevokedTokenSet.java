@@ -0,0 +1,46 @@
+package org.example.chatserver.jwt;
+
+import org.example.chatserver.util.BloomFilter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory mirror of revoked access-token IDs: a Bloom filter in front of an exact map.
+ * Almost every lookup is for a token that was never revoked, and the Bloom filter rejects those with a
+ * few array reads and no allocation. A filter hit is confirmed against the exact map, so false positives
+ * never reject a valid token. Entries are only added; expired ones are dropped when the set is rebuilt.
+ */
+class RevokedTokenSet {
+
+    private final BloomFilter filter;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    RevokedTokenSet(int expectedEntries) {
+        this.filter = new BloomFilter(Math.max(expectedEntries, 1024));
+    }
+
+    void add(String tokenId, long expiresAtMillis) {
+        expiries.merge(tokenId, expiresAtMillis, Math::max);
+        filter.add(tokenId);
+    }
+
+    boolean contains(String tokenId) {
+        return filter.mightContain(tokenId) && expiries.containsKey(tokenId);
+    }
+
+    /**
+     * Copies the entries that have not expired yet into another set.
+     */
+    void copyUnexpiredTo(RevokedTokenSet target, long nowMillis) {
+        expiries.forEach((tokenId, expiresAt) -> {
+            if (expiresAt > nowMillis) {
+                target.add(tokenId, expiresAt);
+            }
+        });
+    }
+
+    int size() {
+        return expiries.size();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.chatserver.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Read-only mirror of the access-token revocation list maintained by user-server.
+ * user-server keeps revoked token IDs ({@code jti}) in the Redis sorted set {@value #REVOKED_KEY}
+ * (score = token expiry) and announces each revocation on {@value #CHANNEL} as {@code tokenId:expiresAtMillis}.
+ * This class applies those announcements to a local {@link RevokedTokenSet} and rebuilds it from the
+ * sorted set on startup and periodically, so CONNECT authentication never goes to Redis.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements MessageListener {
+
+    public static final String REVOKED_KEY = "revoked:access";
+    public static final String CHANNEL = "revocation:access";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int expectedEntries;
+    private volatile RevokedTokenSet revoked;
+
+    public TokenRevocationList(
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.revocation.expected-entries:100000}") int expectedEntries
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.expectedEntries = expectedEntries;
+        this.revoked = new RevokedTokenSet(expectedEntries);
+
+        Gauge.builder("jwt.revocation.size", this, list -> list.revoked.size())
+                .description("Number of revoked access tokens mirrored locally")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the local mirror; never touches Redis.
+     * @param tokenId The {@code jti} of the token, or null for tokens issued without one.
+     * @return True if the token has been revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.contains(tokenId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+            return;
+        }
+        try {
+            revoked.add(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.revocation.resync-interval-ms:60000}", initialDelayString = "${app.revocation.resync-interval-ms:60000}")
+    public void resync() {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> entries;
+        try {
+            entries = stringRedisTemplate.opsForZSet().rangeByScoreWithScores(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+        } catch (Exception e) {
+            log.warn("Failed to resync the access-token revocation list, keeping the current mirror: {}", e.getMessage());
+            return;
+        }
+
+        RevokedTokenSet current = revoked;
+        RevokedTokenSet next = new RevokedTokenSet(Math.max(expectedEntries, current.size() * 2));
+        if (entries != null) {
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() != null && entry.getScore() != null) {
+                    next.add(entry.getValue(), entry.getScore().longValue());
+                }
+            }
+        }
+        // Revocations received over pub/sub while Redis was being read must not be lost by the swap.
+        // The second copy catches anything added to the old set between the first copy and the swap.
+        current.copyUnexpiredTo(next, now);
+        revoked = next;
+        current.copyUnexpiredTo(next, now);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.chatserver.jwt;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of tokens whose signature has already been verified.
+ * Entries are keyed by the token's signature segment (itself an HMAC digest of the token) and confirmed
+ * against the full token on lookup, so a hit always belongs to exactly the token that was verified.
+ * Entries expire at the token's {@code exp}. When the cache is full, the least recently used token is
+ * evicted, so inserting stays O(1) even when a reconnect storm fills the cache with live tokens.
+ */
+class VerifiedTokenCache {
+
+    record VerifiedToken(String token, JwtPrincipal principal, long expiresAtMillis) {}
+
+    private final int maxSize;
+    // Access-ordered; guarded by this.
+    private final LinkedHashMap<String, VerifiedToken> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    synchronized VerifiedToken get(String token, long nowMillis) {
+        String key = keyOf(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null || !cached.token().equals(token)) {
+            return null;
+        }
+        if (cached.expiresAtMillis() <= nowMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    synchronized void put(VerifiedToken verified, long nowMillis) {
+        if (maxSize <= 0 || verified.expiresAtMillis() <= nowMillis) {
+            return;
+        }
+        entries.put(keyOf(verified.token()), verified);
+    }
+
+    synchronized void purgeExpired(long nowMillis) {
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= nowMillis);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static String keyOf(String token) {
+        int lastDot = token.lastIndexOf('.');
+        return lastDot >= 0 ? token.substring(lastDot + 1) : token;
+    }
+}
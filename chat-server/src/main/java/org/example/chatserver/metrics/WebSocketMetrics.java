@@ -1,7 +1,9 @@
 package org.example.chatserver.metrics;
 
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.example.chatserver.codec.PayloadEncoding;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
@@ -12,9 +14,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Component
 public class WebSocketMetrics {
 
+    private final MeterRegistry meterRegistry;
     private final AtomicInteger activeSessions = new AtomicInteger(0);
 
     public WebSocketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
         Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
                 .description("The number of active WebSocket sessions")
                 .register(meterRegistry);
@@ -34,4 +38,20 @@ public class WebSocketMetrics {
             newValue = Math.max(0, currentValue - 1);
         } while (!activeSessions.compareAndSet(currentValue, newValue));
     }
+
+    /**
+     * Records the body size of a broadcast payload, so the encodings can be compared per message type.
+     * @param type The backplane message type (chat, analysis, summary, stream-update).
+     * @param encoding The payload encoding.
+     * @param bytes The encoded body size in bytes.
+     */
+    public void recordPayloadSize(String type, PayloadEncoding encoding, int bytes) {
+        DistributionSummary.builder("websocket.payload.bytes")
+                .description("Size of broadcast payload bodies")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .tag("encoding", encoding.getToken())
+                .register(meterRegistry)
+                .record(bytes);
+    }
 }
@@ -0,0 +1,219 @@
+package org.example.chatserver.overload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.example.chatserver.config.StreamDestinations;
+import org.example.chatserver.service.RedisSubscriptionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches the pressure signals of this instance and decides which broadcasts to shed.
+ * Signals:
+ * <ul>
+ *     <li>Kafka producer buffer usage (buffer-available-bytes / buffer-total-bytes).</li>
+ *     <li>Redis publish latency, as an exponentially weighted moving average. A failed or timed-out publish counts
+ *     as a sample of at least the high threshold, and the average decays on evaluations without samples, so the
+ *     level neither misses a Redis outage nor stays stuck once publishing stops.</li>
+ *     <li>Queue depth of the STOMP client outbound channel.</li>
+ * </ul>
+ * The pressure level is the worst level reported by any signal, re-evaluated on a fixed interval
+ * so the hot path only reads a volatile field.
+ */
+@Slf4j
+@Component
+public class OverloadController {
+
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final KafkaTemplate<?, ?> kafkaTemplate;
+    private final ThreadPoolTaskExecutor clientOutboundChannelExecutor;
+    private final RedisSubscriptionManager redisSubscriptionManager;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> shedCounters = new ConcurrentHashMap<>();
+
+    private final double kafkaBufferElevated;
+    private final double kafkaBufferHigh;
+    private final double redisLatencyElevatedMs;
+    private final double redisLatencyHighMs;
+    private final int outboundQueueElevated;
+    private final int outboundQueueHigh;
+    private final int largeStreamSubscribers;
+
+    private volatile PressureLevel level = PressureLevel.NORMAL;
+    private volatile double kafkaBufferUsage;
+    private volatile double redisPublishLatencyMs;
+    private volatile boolean redisSampledSinceEvaluation;
+    private volatile int outboundQueueDepth;
+
+    public OverloadController(
+            KafkaTemplate<?, ?> kafkaTemplate,
+            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor clientOutboundChannelExecutor,
+            RedisSubscriptionManager redisSubscriptionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.overload.kafka-buffer.elevated:0.5}") double kafkaBufferElevated,
+            @Value("${app.overload.kafka-buffer.high:0.8}") double kafkaBufferHigh,
+            @Value("${app.overload.redis-latency-ms.elevated:20}") double redisLatencyElevatedMs,
+            @Value("${app.overload.redis-latency-ms.high:100}") double redisLatencyHighMs,
+            @Value("${app.overload.outbound-queue.elevated:1000}") int outboundQueueElevated,
+            @Value("${app.overload.outbound-queue.high:5000}") int outboundQueueHigh,
+            @Value("${app.overload.large-stream-subscribers:500}") int largeStreamSubscribers
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.clientOutboundChannelExecutor = clientOutboundChannelExecutor;
+        this.redisSubscriptionManager = redisSubscriptionManager;
+        this.meterRegistry = meterRegistry;
+        this.kafkaBufferElevated = kafkaBufferElevated;
+        this.kafkaBufferHigh = kafkaBufferHigh;
+        this.redisLatencyElevatedMs = redisLatencyElevatedMs;
+        this.redisLatencyHighMs = redisLatencyHighMs;
+        this.outboundQueueElevated = outboundQueueElevated;
+        this.outboundQueueHigh = outboundQueueHigh;
+        this.largeStreamSubscribers = largeStreamSubscribers;
+
+        Gauge.builder("chat.overload.pressure.level", this, c -> c.level.ordinal())
+                .description("Current overload pressure level (0=normal, 1=elevated, 2=high)")
+                .register(meterRegistry);
+        Gauge.builder("chat.overload.kafka.buffer.usage", this, c -> c.kafkaBufferUsage)
+                .description("Fraction of the Kafka producer buffer in use")
+                .register(meterRegistry);
+        Gauge.builder("chat.overload.redis.publish.latency", this, c -> c.redisPublishLatencyMs)
+                .description("Moving average of Redis publish latency")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("chat.overload.outbound.queue.depth", this, c -> c.outboundQueueDepth)
+                .description("Pending messages in the STOMP client outbound channel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the duration of a single Redis publish.
+     * @param nanos The publish duration in nanoseconds.
+     */
+    public void recordRedisPublishLatency(long nanos) {
+        recordRedisSample(nanos / 1_000_000.0);
+    }
+
+    /**
+     * Records a Redis publish that failed or timed out. It counts as a sample of at least the high threshold:
+     * a failure is worse than any latency, and fails faster than a slow success once the connection is down.
+     * @param nanos The time spent before the publish failed, in nanoseconds.
+     */
+    public void recordRedisPublishFailure(long nanos) {
+        recordRedisSample(Math.max(nanos / 1_000_000.0, redisLatencyHighMs));
+    }
+
+    private void recordRedisSample(double millis) {
+        // Benign race: concurrent publishers may overwrite each other's sample, which only slows convergence.
+        redisPublishLatencyMs = redisPublishLatencyMs + EWMA_WEIGHT * (millis - redisPublishLatencyMs);
+        redisSampledSinceEvaluation = true;
+    }
+
+    /**
+     * Decides whether a broadcast of the given kind to the given stream should be dropped on this instance.
+     * @param kind The frame kind (see {@link StreamDestinations}).
+     * @param streamId The target stream.
+     * @return True if the broadcast should be shed.
+     */
+    public boolean shouldShed(String kind, String streamId) {
+        PressureLevel current = level;
+        if (current == PressureLevel.NORMAL) {
+            return false;
+        }
+        boolean shed = switch (kind) {
+            case StreamDestinations.KIND_ANALYSIS -> true;
+            case StreamDestinations.KIND_MESSAGE -> current.atLeast(PressureLevel.HIGH)
+                    && redisSubscriptionManager.getSubscriberCount(streamId) >= largeStreamSubscribers;
+            default -> false;
+        };
+        if (shed) {
+            shedCounters.computeIfAbsent(kind, k -> Counter.builder("chat.overload.shed")
+                    .description("Broadcasts dropped by the overload controller")
+                    .tag("kind", k)
+                    .register(meterRegistry)).increment();
+        }
+        return shed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.overload.evaluation-interval-ms:1000}")
+    public void evaluate() {
+        kafkaBufferUsage = readKafkaBufferUsage();
+        outboundQueueDepth = clientOutboundChannelExecutor.getThreadPoolExecutor().getQueue().size();
+        if (!redisSampledSinceEvaluation) {
+            // No publishes since the last evaluation: decay as if an instant publish had been recorded.
+            redisPublishLatencyMs = redisPublishLatencyMs * (1 - EWMA_WEIGHT);
+        }
+        redisSampledSinceEvaluation = false;
+
+        PressureLevel next = PressureLevel.NORMAL;
+        next = PressureLevel.max(next, classify(kafkaBufferUsage, kafkaBufferElevated, kafkaBufferHigh));
+        next = PressureLevel.max(next, classify(redisPublishLatencyMs, redisLatencyElevatedMs, redisLatencyHighMs));
+        next = PressureLevel.max(next, classify(outboundQueueDepth, outboundQueueElevated, outboundQueueHigh));
+
+        if (next != level) {
+            log.warn("Overload pressure changed from {} to {} (kafkaBuffer={}, redisLatencyMs={}, outboundQueue={})",
+                    level, next, String.format("%.2f", kafkaBufferUsage), String.format("%.1f", redisPublishLatencyMs), outboundQueueDepth);
+            level = next;
+        }
+    }
+
+    public OverloadSnapshot snapshot() {
+        Map<String, Double> shed = new HashMap<>();
+        shedCounters.forEach((kind, counter) -> shed.put(kind, counter.count()));
+        return new OverloadSnapshot(level, kafkaBufferUsage, redisPublishLatencyMs, outboundQueueDepth, shed);
+    }
+
+    private PressureLevel classify(double value, double elevated, double high) {
+        if (value >= high) {
+            return PressureLevel.HIGH;
+        }
+        if (value >= elevated) {
+            return PressureLevel.ELEVATED;
+        }
+        return PressureLevel.NORMAL;
+    }
+
+    private double readKafkaBufferUsage() {
+        double available = -1;
+        double total = -1;
+        for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if (!"producer-metrics".equals(name.group())) {
+                continue;
+            }
+            if ("buffer-available-bytes".equals(name.name())) {
+                available = ((Number) entry.getValue().metricValue()).doubleValue();
+            } else if ("buffer-total-bytes".equals(name.name())) {
+                total = ((Number) entry.getValue().metricValue()).doubleValue();
+            }
+        }
+        if (available < 0 || total <= 0) {
+            return 0;
+        }
+        return 1 - available / total;
+    }
+
+    /**
+     * Point-in-time view of the controller, exposed through the {@code overload} actuator endpoint.
+     */
+    public record OverloadSnapshot(
+            PressureLevel level,
+            double kafkaBufferUsage,
+            double redisPublishLatencyMs,
+            int outboundQueueDepth,
+            Map<String, Double> shedCounts
+    ) {
+    }
+}
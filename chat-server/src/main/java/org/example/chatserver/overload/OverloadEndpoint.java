@@ -0,0 +1,23 @@
+package org.example.chatserver.overload;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/overload}) reporting the current pressure level,
+ * the signals behind it and the number of shed broadcasts per kind.
+ */
+@Component
+@Endpoint(id = "overload")
+@RequiredArgsConstructor
+public class OverloadEndpoint {
+
+    private final OverloadController overloadController;
+
+    @ReadOperation
+    public OverloadController.OverloadSnapshot overload() {
+        return overloadController.snapshot();
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.chatserver.overload;
+
+/**
+ * Overload pressure of this chat-server instance, in increasing order of severity.
+ * <ul>
+ *     <li>NORMAL: everything is delivered.</li>
+ *     <li>ELEVATED: intermediate analysis updates are shed.</li>
+ *     <li>HIGH: chat fan-out to very large streams is shed as well.</li>
+ * </ul>
+ * User-count and summary snapshots are never shed.
+ */
+public enum PressureLevel {
+    NORMAL,
+    ELEVATED,
+    HIGH;
+
+    public boolean atLeast(PressureLevel other) {
+        return compareTo(other) >= 0;
+    }
+
+    public static PressureLevel max(PressureLevel a, PressureLevel b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
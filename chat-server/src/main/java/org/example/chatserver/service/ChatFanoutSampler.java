@@ -0,0 +1,109 @@
+package org.example.chatserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.chatserver.config.SamplingProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samples chat fan-out for streams whose chat rate is too high to be readable.
+ * Below the stream's threshold every message is delivered. Above it, a token bucket caps delivery
+ * at {@code maxPerSecond}; a sender that was already delivered in the current second only gets through
+ * while a spare token remains, so the sample favours distinct senders.
+ * Sampling only affects WebSocket delivery; every message is still produced to Kafka for analysis.
+ */
+@Slf4j
+@Service
+public class ChatFanoutSampler {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final long IDLE_EVICTION_NANOS = 60 * WINDOW_NANOS;
+
+    private final SamplingProperties samplingProperties;
+    private final ConcurrentHashMap<String, StreamState> states = new ConcurrentHashMap<>();
+    // One counter for the node: a per-stream tag would add a time series for every stream ever sampled.
+    private final Counter sampledOut;
+
+    public ChatFanoutSampler(SamplingProperties samplingProperties, MeterRegistry meterRegistry) {
+        this.samplingProperties = samplingProperties;
+        this.sampledOut = Counter.builder("chat.fanout.sampled.out")
+                .description("Chat messages not fanned out to viewers because their stream is being sampled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a chat message should be fanned out to the stream's viewers.
+     * @param streamId The stream the message belongs to.
+     * @param senderId The sender of the message.
+     * @return True if the message should be delivered, false if it is sampled out.
+     */
+    public boolean admit(String streamId, String senderId) {
+        if (!samplingProperties.isEnabled()) {
+            return true;
+        }
+        SamplingProperties.Limit limit = samplingProperties.limitFor(streamId);
+        StreamState state = states.computeIfAbsent(streamId, k -> new StreamState());
+        boolean admitted;
+        synchronized (state) {
+            admitted = state.admit(System.nanoTime(), senderId == null ? "" : senderId, limit);
+        }
+        if (!admitted) {
+            sampledOut.increment();
+        }
+        return admitted;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleStreams() {
+        long now = System.nanoTime();
+        states.entrySet().removeIf(entry -> now - entry.getValue().lastSeen > IDLE_EVICTION_NANOS);
+    }
+
+    private static final class StreamState {
+
+        private final Set<String> deliveredSenders = new HashSet<>();
+        private long windowStart = System.nanoTime();
+        private long lastSeen = windowStart;
+        private long lastRefill = windowStart;
+        private int currentCount;
+        private int previousCount;
+        private double tokens;
+
+        private boolean admit(long now, String senderId, SamplingProperties.Limit limit) {
+            lastSeen = now;
+            if (now - windowStart >= WINDOW_NANOS) {
+                // A gap longer than one window means the previous window was empty.
+                previousCount = now - windowStart >= 2 * WINDOW_NANOS ? 0 : currentCount;
+                currentCount = 0;
+                windowStart = now;
+                deliveredSenders.clear();
+            }
+            currentCount++;
+
+            if (Math.max(previousCount, currentCount) <= limit.getThresholdPerSecond()) {
+                deliveredSenders.add(senderId);
+                return true;
+            }
+
+            int rate = Math.max(1, limit.getMaxPerSecond());
+            double capacity = Math.max(2.0, rate / 4.0);
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * rate / (double) WINDOW_NANOS);
+            lastRefill = now;
+
+            // Repeat senders must leave at least one token for a new sender.
+            double required = deliveredSenders.contains(senderId) ? 2.0 : 1.0;
+            if (tokens < required) {
+                return false;
+            }
+            tokens -= 1.0;
+            deliveredSenders.add(senderId);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.chatserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.chatserver.config.DedupProperties;
+import org.example.chatserver.util.BloomFilter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects chat messages whose client message ID was already accepted for the same sender and stream,
+ * so SockJS reconnects and client retries do not produce a second Kafka record, analysis and fan-out.
+ * <p>
+ * Each stream keeps a rotating Bloom filter next to a small exact LRU, like the token revocation set:
+ * <ul>
+ *     <li>The filter has two generations of {@code window-ms} each; the older one is cleared and reused
+ *     when the newer one is full of time, so the filter remembers an ID for one to two windows.</li>
+ *     <li>The LRU holds the last {@code exact-entries} IDs accepted or repeated in the stream. Retries after a
+ *     reconnect arrive within seconds, so they are normally still in it and are dropped as confirmed duplicates.</li>
+ *     <li>A filter hit that is no longer in the LRU may be a false positive, so the message is accepted and
+ *     counted as unconfirmed. The filter costs ~10 bits per ID and is what keeps the LRU small: the unconfirmed
+ *     rate shows how many possible duplicates slip past it, so {@code exact-entries} can be sized from that metric
+ *     instead of holding every ID of the window.</li>
+ * </ul>
+ * Memory per active stream: two filters of ~10 bits per expected ID, plus at most {@code exact-entries} exact IDs.
+ * The window is per instance; a retry that reconnects to another instance is not caught.
+ */
+@Service
+public class ChatMessageDeduplicator {
+
+    // Rough heap cost of one exact entry: map node, key string of a UUID-sized ID and a boxed timestamp.
+    private static final int EXACT_ENTRY_BYTES = 160;
+
+    private final DedupProperties dedupProperties;
+    private final ConcurrentHashMap<String, StreamWindow> windows = new ConcurrentHashMap<>();
+    private final Counter unique;
+    private final Counter duplicate;
+    private final Counter unconfirmed;
+    // Outcome totals at the last ratio update.
+    private double lastChecks;
+    private double lastDuplicates;
+    private volatile double duplicateRatio;
+
+    public ChatMessageDeduplicator(DedupProperties dedupProperties, MeterRegistry meterRegistry) {
+        this.dedupProperties = dedupProperties;
+        this.unique = outcomeCounter(meterRegistry, "unique");
+        this.duplicate = outcomeCounter(meterRegistry, "duplicate");
+        this.unconfirmed = outcomeCounter(meterRegistry, "unconfirmed");
+        Gauge.builder("chat.dedup.duplicate.ratio", this, d -> d.duplicateRatio)
+                .description("Share of checked chat messages dropped as duplicates over the last minute")
+                .register(meterRegistry);
+        Gauge.builder("chat.dedup.memory", this, ChatMessageDeduplicator::estimatedBytes)
+                .description("Estimated heap used by the dedup windows")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chat.dedup.streams", windows, Map::size)
+                .description("Streams with an active dedup window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a client message ID and tells whether it was seen before.
+     * @param streamId The stream the message is sent to.
+     * @param senderId The authenticated sender; IDs are only compared within one sender.
+     * @param clientMessageId The client-generated ID, or null if the client did not send one.
+     * @return True if the message should be processed, false if it is a duplicate.
+     */
+    public boolean firstSeen(String streamId, String senderId, String clientMessageId) {
+        if (!isTracked(clientMessageId)) {
+            return true;
+        }
+        StreamWindow window = windows.computeIfAbsent(streamId, k -> new StreamWindow());
+        Outcome outcome;
+        synchronized (window) {
+            outcome = window.record(senderId + ':' + clientMessageId, System.currentTimeMillis());
+        }
+        switch (outcome) {
+            case UNIQUE -> unique.increment();
+            case DUPLICATE -> duplicate.increment();
+            case UNCONFIRMED -> unconfirmed.increment();
+        }
+        return outcome != Outcome.DUPLICATE;
+    }
+
+    /**
+     * Forgets an ID recorded by {@link #firstSeen}, for a message that was rejected afterwards,
+     * so the client's retry is not taken for a duplicate. The filter keeps the ID, so the retry counts as unconfirmed.
+     */
+    public void forget(String streamId, String senderId, String clientMessageId) {
+        if (!isTracked(clientMessageId)) {
+            return;
+        }
+        StreamWindow window = windows.get(streamId);
+        if (window != null) {
+            synchronized (window) {
+                window.exact.remove(senderId + ':' + clientMessageId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleStreams() {
+        long now = System.currentTimeMillis();
+        // After two idle windows every remembered ID would have expired anyway.
+        windows.entrySet().removeIf(entry -> now - entry.getValue().lastSeen > 2 * dedupProperties.getWindowMs());
+
+        double checks = unique.count() + duplicate.count() + unconfirmed.count();
+        double duplicates = duplicate.count();
+        duplicateRatio = checks > lastChecks ? (duplicates - lastDuplicates) / (checks - lastChecks) : 0;
+        lastChecks = checks;
+        lastDuplicates = duplicates;
+    }
+
+    private boolean isTracked(String clientMessageId) {
+        return dedupProperties.isEnabled() && clientMessageId != null && !clientMessageId.isEmpty()
+                && clientMessageId.length() <= dedupProperties.getMaxIdLength();
+    }
+
+    private long estimatedBytes() {
+        long bytes = 0;
+        for (StreamWindow window : windows.values()) {
+            bytes += window.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chat.dedup")
+                .description("Chat messages with a client message ID, by dedup outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private enum Outcome { UNIQUE, DUPLICATE, UNCONFIRMED }
+
+    private final class StreamWindow {
+        private final long windowMs = dedupProperties.getWindowMs();
+        private final int maxExact = Math.max(dedupProperties.getExactEntries(), 1);
+        private BloomFilter current = new BloomFilter(dedupProperties.getExpectedIdsPerWindow());
+        private BloomFilter previous = new BloomFilter(dedupProperties.getExpectedIdsPerWindow());
+        private long currentStartedAt = System.currentTimeMillis();
+        private volatile long lastSeen;
+        // Access order, so an ID that keeps being retried stays while quiet ones are evicted.
+        private final LinkedHashMap<String, Long> exact = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxExact;
+            }
+        };
+
+        private Outcome record(String key, long now) {
+            lastSeen = now;
+            rotate(now);
+            boolean inFilter = current.mightContain(key) || previous.mightContain(key);
+
+            Long acceptedAt = inFilter ? exact.get(key) : null;
+            if (acceptedAt != null && now - acceptedAt < 2 * windowMs) {
+                return Outcome.DUPLICATE;
+            }
+            current.add(key);
+            exact.put(key, now);
+            return inFilter ? Outcome.UNCONFIRMED : Outcome.UNIQUE;
+        }
+
+        private void rotate(long now) {
+            long elapsed = now - currentStartedAt;
+            if (elapsed < windowMs) {
+                return;
+            }
+            if (elapsed >= 2 * windowMs) {
+                // Idle for two windows: both generations have expired.
+                current.clear();
+            }
+            BloomFilter cleared = previous;
+            cleared.clear();
+            previous = current;
+            current = cleared;
+            currentStartedAt = now;
+        }
+
+        private long estimatedBytes() {
+            synchronized (this) {
+                return current.sizeInBytes() + previous.sizeInBytes() + (long) exact.size() * EXACT_ENTRY_BYTES;
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.example.chatserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.chatserver.config.RateLimitProperties;
+import org.example.chatserver.exception.ChatRateLimitException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide token-bucket rate limiting for chat sends, per user and per stream.
+ * The buckets live in Redis; each instance leases a batch of tokens from a bucket and hands them out
+ * locally, so only one send per batch pays a Redis round trip.
+ * <p>
+ * If Redis cannot be reached, the limiter fails open for {@code fail-open-ms}: buckets are served from local
+ * leases at their configured refill rate without calling Redis, and the outage is logged once per period.
+ */
+@Slf4j
+@Service
+public class ChatRateLimiter {
+
+    public static final String LIMIT_USER = "user";
+    public static final String LIMIT_STREAM = "stream";
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_bucket_lease.lua"), List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RateLimitProperties properties;
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final Counter userRejections;
+    private final Counter streamRejections;
+    private final Counter leaseRequests;
+    private final Counter failOpenPeriods;
+    // While in the future, leases are granted locally instead of from Redis.
+    private final AtomicLong failOpenUntil = new AtomicLong();
+
+    public ChatRateLimiter(StringRedisTemplate stringRedisTemplate, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.userRejections = rejectionCounter(meterRegistry, LIMIT_USER);
+        this.streamRejections = rejectionCounter(meterRegistry, LIMIT_STREAM);
+        this.leaseRequests = Counter.builder("chat.ratelimit.lease.requests")
+                .description("Token leases requested from Redis")
+                .register(meterRegistry);
+        this.failOpenPeriods = Counter.builder("chat.ratelimit.failopen")
+                .description("Periods in which Redis was unreachable and leases were granted locally")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the sender's and the stream's buckets.
+     * A send rejected by the stream bucket gives the sender's token back, so a busy stream does not also
+     * eat into its senders' own limits.
+     * @param userId The authenticated sender.
+     * @param streamId The target stream.
+     * @throws ChatRateLimitException if either bucket is exhausted.
+     */
+    public void acquire(String userId, String streamId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String userBucket = LIMIT_USER + ":" + userId;
+        long retryAfter = tryAcquire(userBucket, properties.getUser());
+        if (retryAfter > 0) {
+            userRejections.increment();
+            throw new ChatRateLimitException(LIMIT_USER, retryAfter);
+        }
+        retryAfter = tryAcquire(LIMIT_STREAM + ":" + streamId, properties.getStream());
+        if (retryAfter > 0) {
+            refund(userBucket);
+            streamRejections.increment();
+            throw new ChatRateLimitException(LIMIT_STREAM, retryAfter);
+        }
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void evictExpiredLeases() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Lease> entry : leases.entrySet()) {
+            Lease lease = entry.getValue();
+            // Under the lease's lock, so a sender that already looked the lease up sees the eviction and retries.
+            synchronized (lease) {
+                if (lease.isIdle(now)) {
+                    lease.evicted = true;
+                    leases.remove(entry.getKey(), lease);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the suggested wait in milliseconds.
+     */
+    private long tryAcquire(String bucketId, RateLimitProperties.Bucket bucket) {
+        while (true) {
+            Lease lease = leases.computeIfAbsent(bucketId, k -> new Lease());
+            synchronized (lease) {
+                if (lease.evicted) {
+                    // Evicted between the lookup and the lock; tokens taken from it would be lost.
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                if (lease.remaining > 0 && now < lease.expiresAt) {
+                    lease.remaining--;
+                    return 0;
+                }
+                if (now < lease.blockedUntil) {
+                    return lease.blockedUntil - now;
+                }
+                if (lease.local && now < lease.expiresAt) {
+                    // A local lease is the whole allowance for its TTL; there is no Redis bucket to top it up.
+                    return lease.expiresAt - now;
+                }
+
+                long[] result = lease(bucketId, bucket, now);
+                if (result[0] > 0) {
+                    lease.remaining = (int) result[0] - 1;
+                    lease.expiresAt = now + properties.getLeaseTtlMs();
+                    lease.local = result[2] != 0;
+                    return 0;
+                }
+                lease.remaining = 0;
+                lease.blockedUntil = now + Math.max(1, result[1]);
+                return lease.blockedUntil - now;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire} to the local lease. Every successful take leaves a lease
+     * that is valid for {@code lease-ttl-ms}, so the token only expires if the refund comes after that.
+     */
+    private void refund(String bucketId) {
+        Lease lease = leases.get(bucketId);
+        if (lease == null) {
+            return;
+        }
+        synchronized (lease) {
+            if (!lease.evicted && System.currentTimeMillis() < lease.expiresAt) {
+                lease.remaining++;
+            }
+        }
+    }
+
+    /**
+     * @return The granted tokens, the wait in milliseconds if none were granted, and 1 if the lease was granted locally.
+     */
+    private long[] lease(String bucketId, RateLimitProperties.Bucket bucket, long now) {
+        if (now < failOpenUntil.get()) {
+            return localLease(bucket);
+        }
+        leaseRequests.increment();
+        try {
+            List<?> result = stringRedisTemplate.execute(LEASE_SCRIPT, List.of(KEY_PREFIX + bucketId),
+                    String.valueOf(bucket.getCapacity()), String.valueOf(bucket.getRefillPerSecond()), String.valueOf(bucket.getLeaseSize()));
+            if (result == null || result.size() < 2) {
+                throw new IllegalStateException("unexpected lease script result " + result);
+            }
+            return new long[]{((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue(), 0};
+        } catch (Exception e) {
+            // Fail open: a Redis outage must not stop chat entirely, nor cost every send a failing Redis call.
+            long until = failOpenUntil.get();
+            if (until <= now && failOpenUntil.compareAndSet(until, now + properties.getFailOpenMs())) {
+                failOpenPeriods.increment();
+                log.warn("Rate limit leases failed, granting them locally for {} ms: {}", properties.getFailOpenMs(), e.getMessage());
+            }
+            return localLease(bucket);
+        }
+    }
+
+    /**
+     * A lease sized to the bucket's refill over one lease TTL, so each instance keeps limiting at the
+     * configured rate while Redis is unavailable.
+     */
+    private long[] localLease(RateLimitProperties.Bucket bucket) {
+        long refill = (long) Math.ceil(bucket.getRefillPerSecond() * properties.getLeaseTtlMs() / 1000.0);
+        return new long[]{Math.max(Math.max(bucket.getLeaseSize(), refill), 1), 0, 1};
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("chat.ratelimit.rejected")
+                .description("Chat sends rejected by the rate limiter")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    private static final class Lease {
+        private int remaining;
+        private long expiresAt;
+        private long blockedUntil;
+        // Granted while failing open, so it is not topped up from Redis when it runs out.
+        private boolean local;
+        // Set under the lease's lock when it is removed from the map.
+        private boolean evicted;
+
+        private boolean isIdle(long now) {
+            return now >= expiresAt && now >= blockedUntil;
+        }
+    }
+}
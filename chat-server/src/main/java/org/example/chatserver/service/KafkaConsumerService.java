@@ -7,6 +7,7 @@ import org.example.chatserver.service.RedisPublisherService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
@@ -17,13 +18,18 @@ import org.springframework.stereotype.Service;
 public class KafkaConsumerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
+    // Must match user-server's RedisNearCache.INVALIDATION_CHANNEL.
+    private static final String NEAR_CACHE_INVALIDATION_CHANNEL = "near-cache:invalidate";
 
     private final RedisPublisherService redisPublisherService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
 
-    public KafkaConsumerService(RedisPublisherService redisPublisherService, RedisTemplate<String, Object> redisTemplate) {
+    public KafkaConsumerService(RedisPublisherService redisPublisherService, RedisTemplate<String, Object> redisTemplate,
+                                StringRedisTemplate stringRedisTemplate) {
         this.redisPublisherService = redisPublisherService;
         this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
     }
 
     /**
@@ -40,6 +46,8 @@ public class KafkaConsumerService {
     public void listenSummaryResult(SummaryResultDto message) {
         String redisKey = "summary:" + message.streamId();
         redisTemplate.opsForValue().set(redisKey, message.summary());
+        // user-server instances cache summaries locally; tell them to drop the old one.
+        stringRedisTemplate.convertAndSend(NEAR_CACHE_INVALIDATION_CHANNEL, redisKey);
 
         // Publish summary to the Redis backplane for broadcasting to WebSocket clients
         redisPublisherService.publish(message.streamId(), "summary", message);
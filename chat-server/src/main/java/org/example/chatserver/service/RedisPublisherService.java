@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.chatserver.config.RedisConfig;
 import org.example.chatserver.dto.RedisMessageDto;
+import org.example.chatserver.overload.OverloadController;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +17,7 @@ public class RedisPublisherService {
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final OverloadController overloadController;
 
     public void publish(String streamId, String type, Object payloadDto) {
         String channel = "broadcast:" + streamId; // Changed channel naming convention
@@ -23,7 +25,14 @@ public class RedisPublisherService {
             String payload = objectMapper.writeValueAsString(payloadDto);
             RedisMessageDto redisMessage = RedisMessageDto.from(type, payload);
             // Send the DTO object directly. The GenericJackson2JsonRedisSerializer will handle serialization.
-            redisTemplate.convertAndSend(channel, redisMessage);
+            long start = System.nanoTime();
+            try {
+                redisTemplate.convertAndSend(channel, redisMessage);
+            } catch (RuntimeException e) {
+                overloadController.recordRedisPublishFailure(System.nanoTime() - start);
+                throw e;
+            }
+            overloadController.recordRedisPublishLatency(System.nanoTime() - start);
             log.debug("Published message object to Redis channel '{}': {}", channel, redisMessage);
         } catch (JsonProcessingException e) {
             log.error("Error serializing message payload for Redis publish", e);
@@ -1,10 +1,15 @@
 package org.example.chatserver.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.chatserver.config.WebSocketConstants;
+import org.example.chatserver.codec.PayloadCodec;
+import org.example.chatserver.codec.PayloadEncoding;
+import org.example.chatserver.config.StreamDestinations;
 import org.example.chatserver.dto.*;
+import org.example.chatserver.metrics.WebSocketMetrics;
+import org.example.chatserver.overload.OverloadController;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +20,13 @@ public class RedisSubscriberService {
 
     private final ObjectMapper objectMapper;
     private final SimpMessagingTemplate messagingTemplate;
+    private final PayloadCodec payloadCodec;
+    private final StreamDestinationRegistry streamDestinationRegistry;
+    private final WebSocketMetrics webSocketMetrics;
+    private final OverloadController overloadController;
+    private final ChatFanoutSampler chatFanoutSampler;
+    private final StreamSenderDirectory streamSenderDirectory;
+    private final SenderProfileCache senderProfileCache;
 
     public void receiveMessage(String message) {
         try {
@@ -26,27 +38,23 @@ public class RedisSubscriberService {
             switch (type) {
                 case "analysis":
                     AnalysisResultDto analysisDto = objectMapper.readValue(payload, AnalysisResultDto.class);
-                    String analysisDestination = WebSocketConstants.TOPIC_PREFIX + "/stream/" + analysisDto.streamId() + "/analysis";
-                    messagingTemplate.convertAndSend(analysisDestination, analysisDto);
-                    log.debug("Forwarded analysis result to {}: {}", analysisDestination, analysisDto);
+                    broadcast(type, analysisDto.streamId(), StreamDestinations.KIND_ANALYSIS, analysisDto, payload);
                     break;
                 case "chat":
                     ChatMessageDto chatDto = objectMapper.readValue(payload, ChatMessageDto.class);
-                    String chatDestination = WebSocketConstants.TOPIC_PREFIX + "/stream/" + chatDto.streamId() + "/message";
-                    messagingTemplate.convertAndSend(chatDestination, chatDto);
-                    log.debug("Forwarded chat message to {}: {}", chatDestination, chatDto);
+                    if (!chatFanoutSampler.admit(chatDto.streamId(), chatDto.senderId())) {
+                        break;
+                    }
+                    announceSender(chatDto);
+                    broadcast(type, chatDto.streamId(), StreamDestinations.KIND_MESSAGE, chatDto, payload);
                     break;
                 case "summary":
                     SummaryResultDto summaryDto = objectMapper.readValue(payload, SummaryResultDto.class);
-                    String summaryDestination = WebSocketConstants.TOPIC_PREFIX + "/stream/" + summaryDto.streamId() + "/summary";
-                    messagingTemplate.convertAndSend(summaryDestination, summaryDto);
-                    log.debug("Forwarded summary result to {}: {}", summaryDestination, summaryDto);
+                    broadcast(type, summaryDto.streamId(), StreamDestinations.KIND_SUMMARY, summaryDto, payload);
                     break;
                 case "stream-update":
                     StreamUserCountUpdateDto userCountDto = objectMapper.readValue(payload, StreamUserCountUpdateDto.class);
-                    String userCountDestination = WebSocketConstants.TOPIC_PREFIX + "/stream/" + userCountDto.streamId() + "/user-count";
-                    messagingTemplate.convertAndSend(userCountDestination, userCountDto);
-                    log.debug("Forwarded user count update to {}: {}", userCountDestination, userCountDto);
+                    broadcast(type, userCountDto.streamId(), StreamDestinations.KIND_USER_COUNT, userCountDto, payload);
                     break;
                 default:
                     log.warn("Received unknown message type from Redis: {}", type);
@@ -56,4 +64,64 @@ public class RedisSubscriberService {
             log.error("Error processing message from Redis: {}", message, e);
         }
     }
+
+    /**
+     * Sends the sender's profile when it first appears in the stream on this instance.
+     * A cached profile goes out ahead of the message; a profile that has to be loaded from Redis is sent
+     * from the profile executor once loaded, so the listener thread never waits and the profile may follow
+     * the message. Profiles are resolved locally by every instance, so they never travel through Redis pub/sub.
+     * A placeholder for a user without a stored profile is not sent, since it carries nothing but the ID; the
+     * sender is forgotten instead, so the profile is announced once user-server has backfilled it.
+     */
+    private void announceSender(ChatMessageDto chatDto) {
+        if (chatDto.senderId() == null || !streamSenderDirectory.markSeen(chatDto.streamId(), chatDto.senderId())) {
+            return;
+        }
+        senderProfileCache.resolveAsync(chatDto.senderId()).thenAccept(profile -> {
+            if (SenderProfileCache.isPlaceholder(profile)) {
+                streamSenderDirectory.forget(chatDto.streamId(), chatDto.senderId());
+                return;
+            }
+            try {
+                broadcast("profile", chatDto.streamId(), StreamDestinations.KIND_PROFILE, profile, objectMapper.writeValueAsString(profile));
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing the profile of user {}", profile.id(), e);
+            }
+        });
+    }
+
+    /**
+     * Forwards a backplane payload to the stream's WebSocket destinations that have subscribers on this instance:
+     * the per-kind destination for existing clients and the multiplexed destination tagged with the frame kind,
+     * each in the encodings that were negotiated for it.
+     * The JSON body received from Redis is forwarded as-is; other encodings are produced once per broadcast
+     * and only when some destination needs them.
+     * Low-priority kinds may be dropped by the {@link OverloadController} while this instance is under pressure.
+     */
+    private void broadcast(String type, String streamId, String kind, Object dto, String jsonPayload) throws JsonProcessingException {
+        if (overloadController.shouldShed(kind, streamId)) {
+            log.debug("Shed {} message for stream {} under overload", type, streamId);
+            return;
+        }
+        String kindDestination = StreamDestinations.ofKind(streamId, kind);
+        String multiplexedDestination = StreamDestinations.multiplexed(streamId);
+        PayloadCodec.EncodedPayload encoded = payloadCodec.prepare(dto, jsonPayload);
+
+        for (PayloadEncoding encoding : PayloadEncoding.values()) {
+            String kindTarget = kindDestination + encoding.getDestinationSuffix();
+            String multiplexedTarget = multiplexedDestination + encoding.getDestinationSuffix();
+            boolean toKind = streamDestinationRegistry.hasSubscribers(streamId, kindTarget);
+            boolean toMultiplexed = streamDestinationRegistry.hasSubscribers(streamId, multiplexedTarget);
+            if (toKind) {
+                messagingTemplate.send(kindTarget, encoded.toMessage(encoding, null));
+            }
+            if (toMultiplexed) {
+                messagingTemplate.send(multiplexedTarget, encoded.toMessage(encoding, kind));
+            }
+            if (toKind || toMultiplexed) {
+                webSocketMetrics.recordPayloadSize(type, encoding, encoded.bytes(encoding).length);
+            }
+        }
+        log.debug("Forwarded {} message for stream {}: {}", type, streamId, dto);
+    }
 }
@@ -8,9 +8,17 @@ import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks which local sessions watch which streams, and listens to a stream's Redis channel while at least one does.
+ * A session usually holds several subscriptions per stream (one per frame kind), so it counts as a subscriber
+ * until its last subscription to the stream is gone, through UNSUBSCRIBE or disconnect.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -19,8 +27,56 @@ public class RedisSubscriptionManager {
     private final RedisMessageListenerContainer redisMessageListenerContainer;
     private final MessageListenerAdapter messageListenerAdapter;
     private final ConcurrentHashMap<String, Set<String>> streamSubscribers = new ConcurrentHashMap<>();
+    // Session ID -> subscription ID -> stream ID.
+    private final ConcurrentHashMap<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
 
-    public void subscribe(String streamId, String sessionId) {
+    /**
+     * Records a STOMP subscription to one of a stream's destinations.
+     */
+    public void subscribe(String streamId, String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessionSubscriptions.computeIfAbsent(sessionId, k -> new HashMap<>());
+        synchronized (subscriptions) {
+            subscriptions.put(subscriptionId, streamId);
+        }
+        addSession(streamId, sessionId);
+    }
+
+    /**
+     * Drops a STOMP subscription; the session stops counting for the stream once it has none left there.
+     * Subscriptions that are not to a stream destination are ignored.
+     */
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessionSubscriptions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String streamId;
+        boolean lastForStream;
+        synchronized (subscriptions) {
+            streamId = subscriptions.remove(subscriptionId);
+            lastForStream = streamId != null && !subscriptions.containsValue(streamId);
+        }
+        if (lastForStream) {
+            removeSession(streamId, sessionId);
+        }
+    }
+
+    /**
+     * Drops every subscription of a disconnected session.
+     */
+    public void unsubscribeSession(String sessionId) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        Set<String> streamIds;
+        synchronized (subscriptions) {
+            streamIds = new HashSet<>(subscriptions.values());
+        }
+        streamIds.forEach(streamId -> removeSession(streamId, sessionId));
+    }
+
+    private void addSession(String streamId, String sessionId) {
         synchronized (streamId.intern()) {
             // Ensure the set is thread-safe for multiple sessions subscribing to the same streamId
             Set<String> sessions = streamSubscribers.computeIfAbsent(streamId, k -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
@@ -36,7 +92,7 @@ public class RedisSubscriptionManager {
         }
     }
 
-    public void unsubscribe(String streamId, String sessionId) {
+    private void removeSession(String streamId, String sessionId) {
         synchronized (streamId.intern()) {
             Set<String> sessions = streamSubscribers.get(streamId);
             if (sessions != null) {
@@ -60,6 +116,25 @@ public class RedisSubscriptionManager {
         }
     }
 
+    public int getSubscriberCount(String streamId) {
+        Set<String> sessions = streamSubscribers.get(streamId);
+        return sessions != null ? sessions.size() : 0;
+    }
+
+    /**
+     * @return A snapshot of the number of local sessions subscribed to each stream.
+     */
+    public Map<String, Integer> getSubscriberCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        streamSubscribers.forEach((streamId, sessions) -> {
+            int size = sessions.size();
+            if (size > 0) {
+                counts.put(streamId, size);
+            }
+        });
+        return counts;
+    }
+
     public Set<String> getAllStreamIds() {
         return Collections.unmodifiableSet(streamSubscribers.keySet());
     }
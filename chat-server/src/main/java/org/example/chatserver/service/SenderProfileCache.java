@@ -0,0 +1,167 @@
+package org.example.chatserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.chatserver.dto.SenderProfileDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Local cache of sender profiles, read from the {@code profile:{userId}} keys that user-server writes on login.
+ * Entries live for {@code app.sender-profile.ttl-ms} and are dropped early when user-server announces a user
+ * change on {@value #CHANNEL}. A user without a stored profile is cached as a placeholder with only the ID set,
+ * and user-server is asked on {@value #BACKFILL_CHANNEL} to fill the profile from the user record; its write is
+ * announced like any other change, which drops the placeholder.
+ * Misses are loaded on {@code senderProfileExecutor}, so the Redis pub/sub listener never waits for Redis.
+ */
+@Slf4j
+@Service
+public class SenderProfileCache implements MessageListener {
+
+    public static final String PROFILE_PREFIX = "profile:";
+    // Must match user-server's StreamCatalog.CHANNEL and USER_PREFIX.
+    public static final String CHANNEL = "catalog:invalidate";
+    private static final String USER_PREFIX = "user:";
+    // Must match user-server's UserProfileStore.BACKFILL_CHANNEL.
+    public static final String BACKFILL_CHANNEL = "profile:backfill";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final Map<String, CachedProfile> profiles;
+    private final Map<String, CompletableFuture<SenderProfileDto>> inFlight = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SenderProfileCache(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Qualifier("senderProfileExecutor") Executor executor,
+            @Value("${app.sender-profile.ttl-ms:300000}") long ttlMillis,
+            @Value("${app.sender-profile.max-size:10000}") int maxSize
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.ttlMillis = ttlMillis;
+        this.profiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = Counter.builder("chat.sender_profile.cache")
+                .description("Sender profile lookups served locally")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chat.sender_profile.cache")
+                .description("Sender profile lookups that went to Redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("chat.sender_profile.cache.size", this, SenderProfileCache::size)
+                .description("Number of sender profiles cached locally")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a profile without blocking the caller: a cached profile is returned as a completed future,
+     * a miss is loaded on the profile executor. Concurrent misses for the same user share one load.
+     * @param userId The sender's user ID.
+     * @return The sender's profile, once loaded.
+     */
+    public CompletableFuture<SenderProfileDto> resolveAsync(String userId) {
+        SenderProfileDto cached = cached(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<SenderProfileDto> loading = new CompletableFuture<>();
+        CompletableFuture<SenderProfileDto> existing = inFlight.putIfAbsent(userId, loading);
+        if (existing != null) {
+            return existing;
+        }
+        misses.increment();
+        long now = System.currentTimeMillis();
+        executor.execute(() -> {
+            SenderProfileDto profile = load(userId);
+            synchronized (profiles) {
+                profiles.put(userId, new CachedProfile(profile, now));
+            }
+            inFlight.remove(userId);
+            loading.complete(profile);
+        });
+        return loading;
+    }
+
+    /**
+     * Loads a profile in the background, e.g. when its user connects, so the first chat message finds it cached.
+     */
+    public void prefetch(String userId) {
+        resolveAsync(userId);
+    }
+
+    /**
+     * @return True for the ID-only profile cached for a user without a stored profile.
+     */
+    public static boolean isPlaceholder(SenderProfileDto profile) {
+        return profile.name() == null && profile.profileImageUrl() == null;
+    }
+
+    private SenderProfileDto cached(String userId) {
+        long now = System.currentTimeMillis();
+        synchronized (profiles) {
+            CachedProfile cached = profiles.get(userId);
+            if (cached != null && now - cached.loadedAt() < ttlMillis) {
+                hits.increment();
+                return cached.profile();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(USER_PREFIX)) {
+            synchronized (profiles) {
+                profiles.remove(body.substring(USER_PREFIX.length()));
+            }
+        }
+    }
+
+    private SenderProfileDto load(String userId) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(PROFILE_PREFIX + userId);
+            if (json != null) {
+                return objectMapper.readValue(json, SenderProfileDto.class);
+            }
+            stringRedisTemplate.convertAndSend(BACKFILL_CHANNEL, userId);
+        } catch (Exception e) {
+            log.warn("Failed to load the profile of user {}: {}", userId, e.getMessage());
+        }
+        return new SenderProfileDto(userId, null, null);
+    }
+
+    private int size() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    private record CachedProfile(SenderProfileDto profile, long loadedAt) {}
+}
@@ -0,0 +1,80 @@
+package org.example.chatserver.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which destinations of each stream have subscribers on this instance: the multiplexed or per-kind
+ * destination, in whichever payload encoding was negotiated (e.g. {@code /topic/stream/1.cbor}).
+ * Broadcasts only build and send the variants that someone on this instance is subscribed to.
+ */
+@Slf4j
+@Service
+public class StreamDestinationRegistry {
+
+    private record StreamSubscription(String streamId, String destination) {}
+
+    // sessionId -> (subscriptionId -> subscription)
+    private final ConcurrentHashMap<String, Map<String, StreamSubscription>> sessionSubscriptions = new ConcurrentHashMap<>();
+    // streamId -> destination -> number of subscriptions; the inner maps are only modified inside compute on their stream
+    private final ConcurrentHashMap<String, Map<String, Integer>> streamDestinations = new ConcurrentHashMap<>();
+
+    /**
+     * @param destination The destination the broker will match, i.e. after any encoding suffix has been applied.
+     */
+    public void register(String sessionId, String subscriptionId, String streamId, String destination) {
+        StreamSubscription previous = sessionSubscriptions.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
+                .put(subscriptionId, new StreamSubscription(streamId, destination));
+        // A client may reuse a subscription ID after it was dropped without an UNSUBSCRIBE.
+        if (previous != null) {
+            release(previous);
+        }
+        streamDestinations.compute(streamId, (id, destinations) -> {
+            Map<String, Integer> counts = destinations != null ? destinations : new ConcurrentHashMap<>();
+            counts.merge(destination, 1, Integer::sum);
+            return counts;
+        });
+        log.debug("Session {} subscription {} on stream {} receives {}", sessionId, subscriptionId, streamId, destination);
+    }
+
+    public void unregister(String sessionId, String subscriptionId) {
+        Map<String, StreamSubscription> subscriptions = sessionSubscriptions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        StreamSubscription subscription = subscriptions.remove(subscriptionId);
+        if (subscription != null) {
+            release(subscription);
+        }
+    }
+
+    public void unregisterSession(String sessionId) {
+        Map<String, StreamSubscription> subscriptions = sessionSubscriptions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    public boolean hasSubscribers(String streamId, String destination) {
+        Map<String, Integer> destinations = streamDestinations.get(streamId);
+        return destinations != null && destinations.containsKey(destination);
+    }
+
+    /**
+     * Drops one subscription from the stream's counts and removes the stream once none are left,
+     * so streams that are no longer watched do not accumulate entries.
+     */
+    private void release(StreamSubscription subscription) {
+        streamDestinations.computeIfPresent(subscription.streamId(), (id, destinations) -> {
+            destinations.computeIfPresent(subscription.destination(), (destination, count) -> count > 1 ? count - 1 : null);
+            return destinations.isEmpty() ? null : destinations;
+        });
+    }
+
+    int trackedStreams() {
+        return streamDestinations.size();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.chatserver.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which senders have recently chatted in each stream on this instance, so a sender's profile
+ * is broadcast on first appearance rather than with every message, and a new viewer can be given the
+ * profiles of the recent senders once when it joins.
+ * Each stream keeps at most {@code app.sender-profile.senders-per-stream} senders, least recent first out;
+ * an evicted sender is simply announced again when it next chats.
+ */
+@Service
+public class StreamSenderDirectory {
+
+    private static final long IDLE_EVICTION_MILLIS = 10 * 60_000L;
+
+    private final int sendersPerStream;
+    private final ConcurrentHashMap<String, StreamSenders> streams = new ConcurrentHashMap<>();
+
+    public StreamSenderDirectory(@Value("${app.sender-profile.senders-per-stream:500}") int sendersPerStream) {
+        this.sendersPerStream = sendersPerStream;
+    }
+
+    /**
+     * Records that a sender chatted in a stream.
+     * @return True if the sender was not among the stream's recent senders.
+     */
+    public boolean markSeen(String streamId, String senderId) {
+        StreamSenders senders = streams.computeIfAbsent(streamId, k -> new StreamSenders());
+        synchronized (senders) {
+            senders.lastSeen = System.currentTimeMillis();
+            // Re-inserting moves the sender to the most recent end.
+            boolean first = !senders.ids.remove(senderId);
+            senders.ids.add(senderId);
+            if (senders.ids.size() > sendersPerStream) {
+                senders.ids.remove(senders.ids.iterator().next());
+            }
+            return first;
+        }
+    }
+
+    /**
+     * Removes a sender, so it is announced again when it next chats.
+     */
+    public void forget(String streamId, String senderId) {
+        StreamSenders senders = streams.get(streamId);
+        if (senders != null) {
+            synchronized (senders) {
+                senders.ids.remove(senderId);
+            }
+        }
+    }
+
+    /**
+     * @return The stream's recent senders, least recent first.
+     */
+    public List<String> recentSenders(String streamId) {
+        StreamSenders senders = streams.get(streamId);
+        if (senders == null) {
+            return List.of();
+        }
+        synchronized (senders) {
+            return new ArrayList<>(senders.ids);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleStreams() {
+        long now = System.currentTimeMillis();
+        streams.entrySet().removeIf(entry -> now - entry.getValue().lastSeen > IDLE_EVICTION_MILLIS);
+    }
+
+    private static final class StreamSenders {
+        private final LinkedHashSet<String> ids = new LinkedHashSet<>();
+        private volatile long lastSeen;
+    }
+}
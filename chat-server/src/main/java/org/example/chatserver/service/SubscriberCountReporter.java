@@ -0,0 +1,108 @@
+package org.example.chatserver.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.chatserver.dto.SubscriberCountReportDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodically publishes this instance's per-stream subscriber counts so that user-server can derive
+ * live viewer counts from WebSocket subscriptions instead of REST enter/leave calls.
+ * Each report lists only the streams whose count changed since the previous one; every
+ * {@code full-report-every}-th report is a full snapshot, which repairs lost messages and bootstraps
+ * newly started aggregators. A report is sent every interval even when nothing changed, so the
+ * aggregator can tell a quiet instance from a dead one.
+ */
+@Slf4j
+@Service
+public class SubscriberCountReporter {
+
+    public static final String CHANNEL = "viewer-counts:reports";
+
+    private final RedisSubscriptionManager redisSubscriptionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int fullReportEvery;
+    // A fresh ID per process, so a restarted instance never inherits the counts of its predecessor.
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private Map<String, Integer> lastReported = new HashMap<>();
+    private long sequence;
+
+    public SubscriberCountReporter(
+            RedisSubscriptionManager redisSubscriptionManager,
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.viewer-count.enabled:true}") boolean enabled,
+            @Value("${app.viewer-count.full-report-every:5}") int fullReportEvery
+    ) {
+        this.redisSubscriptionManager = redisSubscriptionManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.fullReportEvery = Math.max(1, fullReportEvery);
+    }
+
+    @Scheduled(fixedRateString = "${app.viewer-count.report-interval-ms:2000}")
+    public synchronized void report() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Integer> current = redisSubscriptionManager.getSubscriberCounts();
+        boolean full = sequence % fullReportEvery == 0;
+
+        Map<String, Integer> counts;
+        if (full) {
+            counts = current;
+        } else {
+            counts = new HashMap<>();
+            current.forEach((streamId, count) -> {
+                if (!count.equals(lastReported.get(streamId))) {
+                    counts.put(streamId, count);
+                }
+            });
+            lastReported.keySet().forEach(streamId -> {
+                if (!current.containsKey(streamId)) {
+                    counts.put(streamId, 0);
+                }
+            });
+        }
+
+        if (publish(new SubscriberCountReportDto(instanceId, sequence, full, counts))) {
+            lastReported = current;
+        }
+        sequence++;
+    }
+
+    /**
+     * Withdraws this instance's counts right away instead of waiting for the aggregator to expire them.
+     */
+    @PreDestroy
+    public synchronized void withdraw() {
+        if (enabled) {
+            publish(new SubscriberCountReportDto(instanceId, sequence++, true, Map.of()));
+        }
+    }
+
+    private boolean publish(SubscriberCountReportDto report) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(report));
+            return true;
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing subscriber count report", e);
+        } catch (Exception e) {
+            log.warn("Failed to publish subscriber count report: {}", e.getMessage());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.chatserver.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, safe for concurrent use.
+ * Sized at ~10 bits per expected entry with 7 hashes, which gives a false-positive rate of about 1%
+ * at the expected size. Bits are set with CAS, so adds never block lookups; {@link #clear()} is not atomic
+ * with respect to concurrent adds and is meant for filters that are rotated under the owner's lock.
+ */
+public class BloomFilter {
+
+    private static final int HASH_COUNT = 7;
+    private static final int BITS_PER_ENTRY = 10;
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+
+    public BloomFilter(int expectedEntries) {
+        long requested = (long) Math.max(expectedEntries, 1) * BITS_PER_ENTRY;
+        this.bitCount = (int) Math.min(requested, Integer.MAX_VALUE - 63L);
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * @return False if the value was never added; true if it probably was.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0L);
+        }
+    }
+
+    public long sizeInBytes() {
+        return bits.length() * 8L;
+    }
+
+    // 64-bit FNV-1a; the two halves feed double hashing.
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
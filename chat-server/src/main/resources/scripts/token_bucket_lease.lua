@@ -0,0 +1,32 @@
+-- Leases up to ARGV[3] tokens from a token bucket stored as a hash {t = tokens, ts = last refill (ms)}.
+-- KEYS[1]: bucket key
+-- ARGV[1]: capacity, ARGV[2]: refill rate (tokens/sec), ARGV[3]: requested tokens
+-- Returns {granted, retryAfterMs}; retryAfterMs is 0 unless nothing could be granted.
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', KEYS[1], 't', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', tostring(now))
+-- Keep the key only as long as it takes to refill completely.
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000) + 1000)
+
+local retryAfter = 0
+if granted == 0 then
+    retryAfter = math.ceil((1 - tokens) * 1000 / rate)
+end
+return {granted, retryAfter}
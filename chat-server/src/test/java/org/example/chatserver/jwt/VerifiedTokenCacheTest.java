@@ -0,0 +1,59 @@
+package org.example.chatserver.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+    private static final long EXPIRES_AT = NOW + 60_000L;
+
+    @Test
+    void evictsTheLeastRecentlyUsedTokenWhenFull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put(verified("h.p.sig1", "1", EXPIRES_AT), NOW);
+        cache.put(verified("h.p.sig2", "2", EXPIRES_AT), NOW);
+        // Touch the first token, so the second becomes the eldest.
+        cache.get("h.p.sig1", NOW);
+
+        cache.put(verified("h.p.sig3", "3", EXPIRES_AT), NOW);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("h.p.sig1", NOW)).isNotNull();
+        assertThat(cache.get("h.p.sig2", NOW)).isNull();
+        assertThat(cache.get("h.p.sig3", NOW).principal().userId()).isEqualTo("3");
+    }
+
+    @Test
+    void purgeExpiredDropsOnlyExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put(verified("h.p.sig1", "1", NOW + 1_000L), NOW);
+        cache.put(verified("h.p.sig2", "2", EXPIRES_AT), NOW);
+
+        cache.purgeExpired(NOW + 1_000L);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("h.p.sig2", NOW + 1_000L)).isNotNull();
+    }
+
+    @Test
+    void doesNotCacheTokensThatAreAlreadyExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put(verified("h.p.sig1", "1", NOW), NOW);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void aSignatureMatchAloneIsNotAHit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put(verified("h.p.sig1", "1", EXPIRES_AT), NOW);
+
+        assertThat(cache.get("h.other.sig1", NOW)).isNull();
+    }
+
+    private static VerifiedTokenCache.VerifiedToken verified(String token, String userId, long expiresAtMillis) {
+        return new VerifiedTokenCache.VerifiedToken(token, new JwtPrincipal(userId, "jti-" + userId), expiresAtMillis);
+    }
+}
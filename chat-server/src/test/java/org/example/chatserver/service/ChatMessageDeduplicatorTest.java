@@ -0,0 +1,106 @@
+package org.example.chatserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.chatserver.config.DedupProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatMessageDeduplicatorTest {
+
+    private DedupProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatMessageDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DedupProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new ChatMessageDeduplicator(properties, meterRegistry);
+    }
+
+    @Test
+    void dropsARepeatedIdFromTheSameSenderInTheSameStream() {
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isTrue();
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isFalse();
+        assertThat(meterRegistry.get("chat.dedup").tag("result", "duplicate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void idsAreScopedToSenderAndStream() {
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isTrue();
+
+        assertThat(deduplicator.firstSeen("1", "bob", "m-1")).isTrue();
+        assertThat(deduplicator.firstSeen("2", "alice", "m-1")).isTrue();
+    }
+
+    @Test
+    void messagesWithoutAUsableIdAreNeverDropped() {
+        String tooLong = "x".repeat(properties.getMaxIdLength() + 1);
+        for (int i = 0; i < 2; i++) {
+            assertThat(deduplicator.firstSeen("1", "alice", null)).isTrue();
+            assertThat(deduplicator.firstSeen("1", "alice", "")).isTrue();
+            assertThat(deduplicator.firstSeen("1", "alice", tooLong)).isTrue();
+        }
+    }
+
+    @Test
+    void aForgottenIdIsAcceptedAgain() {
+        deduplicator.firstSeen("1", "alice", "m-1");
+
+        deduplicator.forget("1", "alice", "m-1");
+
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isTrue();
+        assertThat(meterRegistry.get("chat.dedup").tag("result", "unconfirmed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recentIdsAreConfirmedAndOlderOnesAreAcceptedAsUnconfirmed() {
+        properties.setExactEntries(10);
+        deduplicator = new ChatMessageDeduplicator(properties, meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            deduplicator.firstSeen("1", "alice", "m-" + i);
+        }
+
+        for (int i = 10; i < 20; i++) {
+            assertThat(deduplicator.firstSeen("1", "alice", "m-" + i)).isFalse();
+        }
+        // Evicted from the LRU but still in the filter: possibly a false positive, so never dropped.
+        assertThat(deduplicator.firstSeen("1", "alice", "m-0")).isTrue();
+        assertThat(meterRegistry.get("chat.dedup").tag("result", "unconfirmed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void aRetriedIdStaysInTheLruWhileQuietOnesAreEvicted() {
+        properties.setExactEntries(2);
+        deduplicator = new ChatMessageDeduplicator(properties, meterRegistry);
+        deduplicator.firstSeen("1", "alice", "m-1");
+        deduplicator.firstSeen("1", "alice", "m-2");
+        // The retry touches m-1, so m-2 becomes the eldest.
+        deduplicator.firstSeen("1", "alice", "m-1");
+
+        deduplicator.firstSeen("1", "alice", "m-3");
+
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isFalse();
+    }
+
+    @Test
+    void idsAreForgottenAfterTwoWindows() throws InterruptedException {
+        properties.setWindowMs(20);
+        deduplicator = new ChatMessageDeduplicator(properties, meterRegistry);
+        deduplicator.firstSeen("1", "alice", "m-1");
+
+        Thread.sleep(50);
+
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isTrue();
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isTrue();
+        assertThat(deduplicator.firstSeen("1", "alice", "m-1")).isTrue();
+    }
+}
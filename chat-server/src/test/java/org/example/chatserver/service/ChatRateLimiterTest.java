@@ -0,0 +1,70 @@
+package org.example.chatserver.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.chatserver.config.RateLimitProperties;
+import org.example.chatserver.exception.ChatRateLimitException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatRateLimiterTest {
+
+    private StringRedisTemplate redis;
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        properties = new RateLimitProperties();
+        properties.setUser(new RateLimitProperties.Bucket(10, 5, 3));
+        properties.setStream(new RateLimitProperties.Bucket(1000, 1000, 100));
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new ChatRateLimiter(redis, properties, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aRedisOutageCostsOneCallPerFailOpenPeriodAndStillLimitsLocally() {
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // The user bucket refills 5/s, so a 2 s local lease holds 10 tokens.
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("alice", "1");
+        }
+        assertThatThrownBy(() -> limiter.acquire("alice", "1")).isInstanceOf(ChatRateLimitException.class);
+
+        verify(redis, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertThat(meterRegistry.get("chat.ratelimit.failopen").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void leasesEvictedWhileIdleAreRecreatedOnTheNextSend() {
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(3L, 0L), List.of(100L, 0L), List.of(3L, 0L));
+        properties.setLeaseTtlMs(0);
+
+        // With a zero TTL every send leases from both buckets.
+        limiter.acquire("alice", "1");
+        limiter.evictExpiredLeases();
+        limiter.acquire("alice", "1");
+
+        verify(redis, times(4)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+}
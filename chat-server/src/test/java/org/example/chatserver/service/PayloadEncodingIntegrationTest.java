@@ -0,0 +1,190 @@
+package org.example.chatserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.example.chatserver.codec.PayloadCodec;
+import org.example.chatserver.codec.PayloadEncoding;
+import org.example.chatserver.config.KindFilteringSubscriptionRegistry;
+import org.example.chatserver.config.WebSocketConstants;
+import org.example.chatserver.dto.RedisMessageDto;
+import org.example.chatserver.interceptor.PayloadEncodingInterceptor;
+import org.example.chatserver.metrics.WebSocketMetrics;
+import org.example.chatserver.overload.OverloadController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs SUBSCRIBE frames through the encoding interceptor into a real simple broker and checks what each
+ * subscriber receives for a backplane broadcast, decoding the CBOR frames the way a binary client would.
+ */
+class PayloadEncodingIntegrationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StreamDestinationRegistry registry = new StreamDestinationRegistry();
+    private final List<Message<?>> delivered = new CopyOnWriteArrayList<>();
+    private final List<String> published = new CopyOnWriteArrayList<>();
+
+    private ExecutorSubscribableChannel clientInbound;
+    private SimpleBrokerMessageHandler broker;
+    private RedisSubscriberService subscriber;
+
+    @BeforeEach
+    void setUp() {
+        clientInbound = new ExecutorSubscribableChannel();
+        clientInbound.addInterceptor(new PayloadEncodingInterceptor(registry));
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        clientOutbound.subscribe(delivered::add);
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        brokerChannel.addInterceptor(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                published.add(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                return message;
+            }
+        });
+
+        broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic/"));
+        broker.setSubscriptionRegistry(new KindFilteringSubscriptionRegistry());
+        broker.start();
+
+        subscriber = new RedisSubscriberService(
+                objectMapper,
+                new SimpMessagingTemplate(brokerChannel),
+                new PayloadCodec(objectMapper),
+                registry,
+                mock(WebSocketMetrics.class),
+                mock(OverloadController.class),
+                mock(ChatFanoutSampler.class),
+                mock(StreamSenderDirectory.class),
+                mock(SenderProfileCache.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    void binaryClientReceivesPositionalCborWhileJsonClientKeepsJson() throws Exception {
+        subscribe("binary", "sub-0", "/topic/stream/1", "cbor", true);
+        subscribe("text", "sub-0", "/topic/stream/1", null, false);
+
+        broadcastUserCount("1", 42L);
+
+        Message<?> cbor = deliveredTo("binary");
+        assertThat(SimpMessageHeaderAccessor.getDestination(cbor.getHeaders())).isEqualTo("/topic/stream/1.cbor");
+        JsonNode decoded = new CBORMapper().readTree((byte[]) cbor.getPayload());
+        assertThat(decoded.isArray()).isTrue();
+        assertThat(decoded.get(0).asText()).isEqualTo("1");
+        assertThat(decoded.get(1).asLong()).isEqualTo(42L);
+
+        Message<?> json = deliveredTo("text");
+        assertThat(SimpMessageHeaderAccessor.getDestination(json.getHeaders())).isEqualTo("/topic/stream/1");
+        JsonNode parsed = objectMapper.readTree(new String((byte[]) json.getPayload(), StandardCharsets.UTF_8));
+        assertThat(parsed.get("userCount").asLong()).isEqualTo(42L);
+    }
+
+    @Test
+    void textOnlyTransportKeepsJsonEvenWhenCborIsRequested() throws Exception {
+        subscribe("sockjs", "sub-0", "/topic/stream/1", "cbor", false);
+
+        broadcastUserCount("1", 7L);
+
+        assertThat(SimpMessageHeaderAccessor.getDestination(deliveredTo("sockjs").getHeaders())).isEqualTo("/topic/stream/1");
+        assertThat(registry.hasSubscribers("1", "/topic/stream/1.cbor")).isFalse();
+    }
+
+    @Test
+    void unsubscribingTheLastCborSubscriberForgetsTheStream() {
+        subscribe("binary", "sub-0", "/topic/stream/1", "cbor", true);
+        assertThat(registry.hasSubscribers("1", "/topic/stream/1.cbor")).isTrue();
+
+        StompHeaderAccessor unsubscribe = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        unsubscribe.setSessionId("binary");
+        unsubscribe.setSubscriptionId("sub-0");
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], unsubscribe.getMessageHeaders()));
+
+        assertThat(registry.hasSubscribers("1", "/topic/stream/1.cbor")).isFalse();
+        assertThat(registry.trackedStreams()).isZero();
+    }
+
+    @Test
+    void broadcastOnlyPublishesToDestinationsWithSubscribers() throws Exception {
+        subscribe("multiplexed", "sub-0", "/topic/stream/1", null, false);
+        subscribe("legacy", "sub-0", "/topic/stream/1/user-count", null, false);
+
+        broadcastUserCount("1", 3L);
+        broadcastUserCount("2", 5L);
+
+        assertThat(published).containsExactly("/topic/stream/1/user-count", "/topic/stream/1");
+
+        StompHeaderAccessor unsubscribe = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        unsubscribe.setSessionId("legacy");
+        unsubscribe.setSubscriptionId("sub-0");
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], unsubscribe.getMessageHeaders()));
+        published.clear();
+
+        broadcastUserCount("1", 4L);
+
+        assertThat(published).containsExactly("/topic/stream/1");
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination, String encoding, boolean binaryCapable) {
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put(WebSocketConstants.BINARY_CAPABLE_ATTRIBUTE, binaryCapable);
+
+        // The broker only delivers to sessions it has seen connect.
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(sessionId);
+        connect.setSessionAttributes(sessionAttributes);
+        connect.setLeaveMutable(true);
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setSessionAttributes(sessionAttributes);
+        if (encoding != null) {
+            accessor.setNativeHeader(PayloadEncoding.HEADER, encoding);
+        }
+        accessor.setLeaveMutable(true);
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private void broadcastUserCount(String streamId, long userCount) throws Exception {
+        String payload = objectMapper.writeValueAsString(Map.of("streamId", streamId, "userCount", userCount));
+        subscriber.receiveMessage(objectMapper.writeValueAsString(RedisMessageDto.from("stream-update", payload)));
+    }
+
+    private Message<?> deliveredTo(String sessionId) {
+        List<Message<?>> messages = delivered.stream()
+                .filter(message -> SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE)
+                .filter(message -> sessionId.equals(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())))
+                .toList();
+        assertThat(messages).hasSize(1);
+        return messages.get(0);
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.chatserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.chatserver.dto.SenderProfileDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SenderProfileCacheTest {
+
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private SenderProfileCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        cache = new SenderProfileCache(redis, new ObjectMapper(), new SimpleMeterRegistry(), Runnable::run, 60_000, 100);
+    }
+
+    @Test
+    void aMissingProfileIsRequestedFromUserServerOnceAndCachedAsAPlaceholder() {
+        SenderProfileDto profile = cache.resolveAsync("7").join();
+        cache.resolveAsync("7").join();
+
+        assertThat(SenderProfileCache.isPlaceholder(profile)).isTrue();
+        assertThat(profile.id()).isEqualTo("7");
+        verify(redis, times(1)).convertAndSend(SenderProfileCache.BACKFILL_CHANNEL, "7");
+    }
+
+    @Test
+    void theBackfillAnnouncementReplacesThePlaceholder() {
+        cache.resolveAsync("7").join();
+        when(values.get(SenderProfileCache.PROFILE_PREFIX + "7"))
+                .thenReturn("{\"id\":\"7\",\"name\":\"Kim\",\"profileImageUrl\":\"https://img/7\"}");
+
+        cache.onMessage(new DefaultMessage(SenderProfileCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "user:7".getBytes(StandardCharsets.UTF_8)), null);
+        SenderProfileDto profile = cache.resolveAsync("7").join();
+
+        assertThat(SenderProfileCache.isPlaceholder(profile)).isFalse();
+        assertThat(profile.name()).isEqualTo("Kim");
+    }
+}
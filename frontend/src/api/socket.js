@@ -119,9 +119,9 @@ class SocketClient {
         }
     }
 
-    sendMessage(destination, message) {
+    sendMessage(destination, message, headers = {}) {
         if (this.stompClient && this.stompClient.connected) {
-            this.stompClient.send(destination, {}, JSON.stringify(message));
+            this.stompClient.send(destination, headers, JSON.stringify(message));
         } else {
             console.warn('STOMP client not connected. Message not sent:', message);
             // Optionally, attempt to re-issue token and reconnect if not connected
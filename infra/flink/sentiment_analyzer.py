@@ -39,11 +39,7 @@ def parse_kafka_message(msg: str):
     '{ 
         "streamId": "some-id",
         "content": "some message",
-        "sender": {
-            "id": "sender-id",
-            "name": "Sender Name",
-            "profileImageUrl": "http://example.com/image.png"
-        }
+        "senderId": "sender-id"
     }'
     """
     try:
@@ -0,0 +1,111 @@
+package org.example.userserver.domain.stream.service;
+
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link StreamSearchIndex#search(String)} over a synthetic catalog, and the heap the index retains.
+ * <ul>
+ *     <li>Titles are three words out of a 5000-word vocabulary of random 3 to 6 letter words, plus a Korean word.
+ *     One in five titles contains {@code 게임 방송} ({@code common}) and one in a thousand {@code 초보 탈출} ({@code rare});
+ *     {@code miss} matches nothing.</li>
+ *     <li>The retained heap is printed once per trial, measured as the used-heap delta across the build after a GC.
+ *     It is an estimate; run with {@code -prof gc} for the allocation rate of the queries themselves.</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh}. Lives in the service package to index without a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamSearchIndexBenchmark {
+
+    private static final Map<String, String> QUERIES = Map.of(
+            "common", "게임 방송",
+            "rare", "초보 탈출",
+            "miss", "zzqx");
+
+    @Param({"100000"})
+    public int streams;
+
+    @Param({"common", "rare", "miss"})
+    public String query;
+
+    private StreamSearchIndex index;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[5000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        String[] korean = {"게임", "노래", "요리", "여행", "공부", "먹방"};
+
+        List<StreamCatalogEntryDto> entries = new ArrayList<>(streams);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= streams; i++) {
+            String title = vocabulary[random.nextInt(vocabulary.length)] + " "
+                    + korean[random.nextInt(korean.length)] + " "
+                    + vocabulary[random.nextInt(vocabulary.length)] + " "
+                    + vocabulary[random.nextInt(vocabulary.length)];
+            if (i % 5 == 0) {
+                title += " 게임 방송";
+            }
+            if (i % 1000 == 0) {
+                title += " 초보 탈출";
+            }
+            entries.add(StreamCatalogEntryDto.builder()
+                    .id((long) i)
+                    .hostId((long) (i % 5000) + 1)
+                    .title(title)
+                    .hostName("host" + (i % 5000))
+                    .createdAt(now)
+                    .build());
+        }
+
+        long before = usedHeapAfterGc();
+        // The repository is only used by build() and refresh(), which the benchmark never calls.
+        index = new StreamSearchIndex(null);
+        for (int from = 0; from < entries.size(); from += 1000) {
+            index.index(entries.subList(from, Math.min(from + 1000, entries.size())));
+        }
+        long retained = usedHeapAfterGc() - before;
+        System.out.printf("%nIndexed %d streams, retained heap ~%.1f MB%n", streams, retained / (1024.0 * 1024.0));
+        text = QUERIES.get(query);
+    }
+
+    @Benchmark
+    public Set<Long> search() {
+        return index.search(text);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
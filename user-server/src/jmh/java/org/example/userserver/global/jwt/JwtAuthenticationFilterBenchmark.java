@@ -0,0 +1,68 @@
+package org.example.userserver.global.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.userserver.global.filter.JwtAuthenticationFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link JwtAuthenticationFilter} for one authenticated request.
+ * <ul>
+ *     <li>{@code cold}: the verified-token cache is disabled, so every request verifies the HMAC signature
+ *     and parses the claims (the cost before the cache, and of a token's first request).</li>
+ *     <li>{@code warm}: the token is already cached, so the request costs a map lookup and a revocation check.</li>
+ * </ul>
+ * Lives in the jwt package to call {@link JwtUtil#init()} without a Spring context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"cold", "warm"})
+    public String cache;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L, 1_209_600_000L, "warm".equals(cache) ? 100_000 : 0, meterRegistry);
+        jwtUtil.init();
+        // The Redis template is only used by resync(), which the benchmark never calls.
+        TokenRevocationList revocationList = new TokenRevocationList(new RedisTemplate<>(), meterRegistry, 100_000);
+        filter = new JwtAuthenticationFilter(jwtUtil, revocationList, new ObjectMapper());
+
+        request = new MockHttpServletRequest("GET", "/api/v1/streams/1");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateAccessToken(1L, "ROLE_USER"));
+        // Warm the cache (a no-op for the cold state).
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    @Benchmark
+    public int filter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+}
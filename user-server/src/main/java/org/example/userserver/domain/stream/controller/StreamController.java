@@ -6,50 +6,121 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.example.userserver.domain.stream.dto.response.ReadStreamListResponseDto;
 import org.example.userserver.domain.stream.dto.response.ReadStreamResponseDto;
+import org.example.userserver.domain.stream.dto.response.ReadViewerCountListResponseDto;
 import org.example.userserver.domain.stream.dto.request.StreamEnterRequestDto;
+import org.example.userserver.domain.stream.dto.request.StreamHeartbeatRequestDto;
+import org.example.userserver.domain.stream.dto.request.StreamInterestRequestDto;
 import org.example.userserver.domain.stream.dto.request.StreamLeaveRequestDto;
+import org.example.userserver.domain.stream.exception.StreamException;
+import org.example.userserver.domain.stream.exception.StreamExceptionDetails;
 import org.example.userserver.domain.stream.service.StreamService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/streams")
 @RequiredArgsConstructor
 public class StreamController {
 
+    private static final String SORT_BY_VIEWERS = "viewers";
+
     private final StreamService streamService;
 
     @Operation(
             summary = "Get all streams",
-            description = "Retrieves a paginated list of all available streams."
+            description = "Retrieves a paginated list of all available streams, newest first. "
+                    + "Pass the nextCursor of a response as cursor to get the next page. "
+                    + "With sort=viewers, streams are ranked by current viewer count and paged by page number. "
+                    + "No other sort is supported."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved stream list"),
+            @ApiResponse(responseCode = "304", description = "Stream list unchanged since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort"),
     })
     @GetMapping
     public ResponseEntity<ReadStreamListResponseDto> getAllStreams(
-            @PageableDefault(size = 12) Pageable pageable
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @PageableDefault(size = 12) Pageable pageable,
+            WebRequest webRequest
+    ) {
+        // The sort parameter also binds to the Pageable, but the catalog pages and their cache keys only know
+        // the newest-first order, so any other value is refused rather than silently answered unsorted.
+        if (sort != null && !SORT_BY_VIEWERS.equals(sort)) {
+            throw new StreamException(StreamExceptionDetails.UNSUPPORTED_SORT);
+        }
+        pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (SORT_BY_VIEWERS.equals(sort)) {
+            // Rankings move with every count change, so they are not served conditionally.
+            return ResponseEntity.ok(streamService.getPopularStreams(pageable));
+        }
+        // Answer unchanged polls with 304 before building the response.
+        if (webRequest.checkNotModified(streamService.getStreamListETag(cursor, pageable))) {
+            return null;
+        }
+        ReadStreamListResponseDto streams = streamService.getAllStreams(cursor, pageable);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(streams);
+    }
+
+    @Operation(
+            summary = "Search streams",
+            description = "Finds streams whose title or host name contains the query, ignoring case. "
+                    + "Results are ranked by current viewer count."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully searched streams"),
+            @ApiResponse(responseCode = "400", description = "Query shorter than 2 characters"),
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ReadStreamListResponseDto> searchStreams(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
     ) {
-        ReadStreamListResponseDto streams = streamService.getAllStreams(pageable);
+        ReadStreamListResponseDto streams = streamService.searchStreams(q, limit);
         return ResponseEntity.ok(streams);
     }
 
+    @Operation(
+            summary = "Get viewer counts of several streams",
+            description = "Retrieves the current viewer counts of up to 200 streams in one request."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved viewer counts"),
+            @ApiResponse(responseCode = "400", description = "Too many stream IDs requested"),
+    })
+    @GetMapping("/viewer-counts")
+    public ResponseEntity<ReadViewerCountListResponseDto> getViewerCounts(@RequestParam List<Long> ids) {
+        ReadViewerCountListResponseDto viewerCounts = streamService.readViewerCounts(ids);
+        return ResponseEntity.ok(viewerCounts);
+    }
+
     @Operation(
             summary = "Get stream information by ID",
             description = "Retrieves detailed information for a specific stream, including viewer count."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved stream information"),
+            @ApiResponse(responseCode = "304", description = "Stream unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Stream not found"),
     })
     @GetMapping("/{streamId}")
-    public ResponseEntity<ReadStreamResponseDto> getStreamInfo(@PathVariable Long streamId) {
+    public ResponseEntity<ReadStreamResponseDto> getStreamInfo(@PathVariable Long streamId, WebRequest webRequest) {
+        // Answer unchanged polls with 304 before building the response.
+        if (webRequest.checkNotModified(streamService.getStreamETag(streamId))) {
+            return null;
+        }
         ReadStreamResponseDto streamInfo = streamService.readStreamInfo(streamId);
-        return ResponseEntity.ok(streamInfo);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(streamInfo);
     }
 
     @Operation(
@@ -89,14 +160,58 @@ public class StreamController {
     }
 
     @Operation(
-            summary = "Subscribe to all stream updates",
-            description = "Subscribes to real-time updates for all streams using Server-Sent Events."
+            summary = "Send a viewer heartbeat",
+            description = "Keeps the user counted as a viewer of a stream. Clients should call this well within the presence TTL (30 seconds by default). "
+                    + "Returns 204 when viewer counts come from chat subscriptions; clients can then stop sending heartbeats."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Heartbeat recorded"),
+            @ApiResponse(responseCode = "204", description = "Heartbeats are not used"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+    })
+    @PostMapping("/heartbeat")
+    public ResponseEntity<Void> heartbeat(
+            @RequestBody StreamHeartbeatRequestDto requestDto,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        if (!streamService.heartbeat(userId, requestDto.streamId())) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "Subscribe to stream updates",
+            description = "Subscribes to real-time viewer count updates using Server-Sent Events. "
+                    + "With ids, only those streams are sent; without, every stream is. "
+                    + "The connect event carries the client ID used to change the streams later."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully subscribed"),
+            @ApiResponse(responseCode = "400", description = "Too many stream IDs requested"),
     })
     @GetMapping("/subscribe")
-    public SseEmitter subscribe() {
-        return streamService.subscribe();
+    public SseEmitter subscribe(@RequestParam(required = false) List<Long> ids) {
+        return streamService.subscribe(ids);
+    }
+
+    @Operation(
+            summary = "Change the streams of a subscription",
+            description = "Replaces the streams an SSE subscription receives updates for, e.g. after loading another page. "
+                    + "Returns 404 if the subscription is held by another instance; the client should then resubscribe with ids."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Subscription updated"),
+            @ApiResponse(responseCode = "400", description = "Too many stream IDs requested"),
+            @ApiResponse(responseCode = "404", description = "Subscription not found"),
+    })
+    @PutMapping("/subscribe/{clientId}")
+    public ResponseEntity<Void> updateSubscription(
+            @PathVariable String clientId,
+            @RequestBody StreamInterestRequestDto requestDto
+    ) {
+        streamService.updateSubscription(clientId, requestDto.streamIds());
+        return ResponseEntity.ok().build();
     }
 }
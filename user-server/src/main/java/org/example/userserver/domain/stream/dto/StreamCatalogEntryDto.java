@@ -0,0 +1,33 @@
+package org.example.userserver.domain.stream.dto;
+
+import lombok.Builder;
+import lombok.NonNull;
+import org.example.userserver.domain.stream.entity.Stream;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable projection of a stream and its host, as held by the stream catalog cache.
+ */
+@Builder
+public record StreamCatalogEntryDto(
+        @NonNull Long id,
+        @NonNull Long hostId,
+        @NonNull String title,
+        String thumbnailUrl,
+        @NonNull String hostName,
+        String hostProfileImage,
+        @NonNull LocalDateTime createdAt
+) {
+    public static StreamCatalogEntryDto from(Stream stream) {
+        return StreamCatalogEntryDto.builder()
+                .id(stream.getId())
+                .hostId(stream.getHost().getId())
+                .title(stream.getTitle())
+                .thumbnailUrl(stream.getThumbnailUrl())
+                .hostName(stream.getHost().getName())
+                .hostProfileImage(stream.getHost().getProfileImage())
+                .createdAt(stream.getCreatedAt())
+                .build();
+    }
+}
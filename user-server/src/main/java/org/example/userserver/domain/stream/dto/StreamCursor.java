@@ -0,0 +1,45 @@
+package org.example.userserver.domain.stream.dto;
+
+import org.example.userserver.domain.stream.exception.StreamException;
+import org.example.userserver.domain.stream.exception.StreamExceptionDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the stream list, which is ordered by {@code (createdAt, id)} descending.
+ * Clients only see the opaque encoded form and pass it back to fetch the next page.
+ */
+public record StreamCursor(
+        LocalDateTime createdAt,
+        Long id
+) {
+    private static final char SEPARATOR = '|';
+
+    public static StreamCursor of(StreamCatalogEntryDto stream) {
+        return new StreamCursor(stream.createdAt(), stream.id());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws StreamException if the cursor was not produced by {@link #encode()}.
+     */
+    public static StreamCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new StreamException(StreamExceptionDetails.INVALID_CURSOR);
+            }
+            return new StreamCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new StreamException(StreamExceptionDetails.INVALID_CURSOR);
+        }
+    }
+}
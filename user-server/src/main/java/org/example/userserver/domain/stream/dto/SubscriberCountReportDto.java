@@ -0,0 +1,16 @@
+package org.example.userserver.domain.stream.dto;
+
+import java.util.Map;
+
+/**
+ * Per-stream WebSocket subscriber counts reported by one chat-server instance.
+ * A full report replaces everything previously reported by the instance; otherwise only streams
+ * whose count changed are listed, with their new absolute count.
+ */
+public record SubscriberCountReportDto(
+        String instanceId,
+        long sequence,
+        boolean full,
+        Map<String, Integer> counts
+) {
+}
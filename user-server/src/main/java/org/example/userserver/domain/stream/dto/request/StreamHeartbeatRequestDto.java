@@ -0,0 +1,7 @@
+package org.example.userserver.domain.stream.dto.request;
+
+public record StreamHeartbeatRequestDto(
+
+        Long streamId
+
+) {}
@@ -0,0 +1,9 @@
+package org.example.userserver.domain.stream.dto.request;
+
+import java.util.List;
+
+public record StreamInterestRequestDto(
+
+        List<Long> streamIds
+
+) {}
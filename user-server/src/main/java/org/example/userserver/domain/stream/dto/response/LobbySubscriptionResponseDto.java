@@ -0,0 +1,8 @@
+package org.example.userserver.domain.stream.dto.response;
+
+import lombok.NonNull;
+
+public record LobbySubscriptionResponseDto(
+        @NonNull String clientId
+) {
+}
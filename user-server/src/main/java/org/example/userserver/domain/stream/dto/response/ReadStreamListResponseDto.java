@@ -2,7 +2,7 @@ package org.example.userserver.domain.stream.dto.response;
 
 import lombok.Builder;
 import lombok.NonNull;
-import org.example.userserver.domain.stream.entity.Stream;
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
 import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
@@ -15,7 +15,9 @@ public record ReadStreamListResponseDto(
     boolean hasNext,
     int numberOfElements,
     int pageNumber,
-    int pageSize
+    int pageSize,
+    // Opaque position to pass as ?cursor= for the next page; null on the last page.
+    String nextCursor
 ) {
 
     @Builder
@@ -29,15 +31,15 @@ public record ReadStreamListResponseDto(
         @NonNull LocalDateTime createdAt,
         long viewerCount
     ) {
-        public static StreamDto from(Stream stream, long viewerCount) {
+        public static StreamDto from(StreamCatalogEntryDto stream, long viewerCount) {
             return StreamDto.builder()
-                .id(stream.getId())
-                .hostId(stream.getHost().getId())
-                .title(stream.getTitle())
-                .thumbnailUrl(stream.getThumbnailUrl())
-                .hostname(stream.getHost().getName())
-                .hostprofile(stream.getHost().getProfileImage())
-                .createdAt(stream.getCreatedAt())
+                .id(stream.id())
+                .hostId(stream.hostId())
+                .title(stream.title())
+                .thumbnailUrl(stream.thumbnailUrl())
+                .hostname(stream.hostName())
+                .hostprofile(stream.hostProfileImage())
+                .createdAt(stream.createdAt())
                 .viewerCount(viewerCount)
                 .build();
         }
@@ -2,7 +2,7 @@ package org.example.userserver.domain.stream.dto.response;
 
 import lombok.Builder;
 import lombok.NonNull;
-import org.example.userserver.domain.stream.entity.Stream;
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
 
 @Builder
 public record ReadStreamResponseDto(
@@ -18,13 +18,13 @@ public record ReadStreamResponseDto(
             String profilePic
     ) {}
 
-    public static ReadStreamResponseDto from(Stream stream, long viewerCount, String summary) {
+    public static ReadStreamResponseDto from(StreamCatalogEntryDto stream, long viewerCount, String summary) {
         return ReadStreamResponseDto.builder()
-                .id(stream.getId())
-                .title(stream.getTitle())
+                .id(stream.id())
+                .title(stream.title())
                 .host(HostDto.builder()
-                        .name(stream.getHost().getName())
-                        .profilePic(stream.getHost().getProfileImage())
+                        .name(stream.hostName())
+                        .profilePic(stream.hostProfileImage())
                         .build())
                 .viewerCount(viewerCount)
                 .summary(summary)
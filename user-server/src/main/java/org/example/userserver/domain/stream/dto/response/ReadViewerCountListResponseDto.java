@@ -0,0 +1,12 @@
+package org.example.userserver.domain.stream.dto.response;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.List;
+
+@Builder
+public record ReadViewerCountListResponseDto(
+        @NonNull List<StreamUserCountUpdateDto> viewerCounts
+) {
+}
@@ -4,13 +4,15 @@ import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.example.userserver.domain.stream.service.StreamCatalogInvalidator;
 import org.example.userserver.domain.user.entity.User;
 import org.example.userserver.global.entity.BaseEntity;
 
 @Getter
 @NoArgsConstructor
 @Entity
-@Table(name = "stream")
+@EntityListeners(StreamCatalogInvalidator.class)
+@Table(name = "stream", indexes = @Index(name = "idx_stream_created_at_id", columnList = "created_at, id"))
 public class Stream extends BaseEntity {
 
     @Id
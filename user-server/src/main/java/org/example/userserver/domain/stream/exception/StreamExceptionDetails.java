@@ -8,7 +8,13 @@ import org.springframework.http.HttpStatus;
 @Getter
 @AllArgsConstructor
 public enum StreamExceptionDetails implements ExceptionDetails {
-    STREAM_NOT_FOUND(HttpStatus.NOT_FOUND, "Stream not found");
+    STREAM_NOT_FOUND(HttpStatus.NOT_FOUND, "Stream not found"),
+    TOO_MANY_STREAM_IDS(HttpStatus.BAD_REQUEST, "Too many stream IDs requested"),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Invalid cursor"),
+    UNSUPPORTED_SORT(HttpStatus.BAD_REQUEST, "Unsupported sort, only sort=viewers is available"),
+    SEARCH_QUERY_TOO_SHORT(HttpStatus.BAD_REQUEST, "Search query must be at least 2 characters"),
+    SUBSCRIPTION_NOT_FOUND(HttpStatus.NOT_FOUND, "Subscription not found"),
+    TOO_MANY_SSE_CONNECTIONS(HttpStatus.SERVICE_UNAVAILABLE, "Too many open subscriptions, try again later");
 
     private final HttpStatus status;
     private final String message;
@@ -1,14 +1,42 @@
 package org.example.userserver.domain.stream.repository;
 
 import org.example.userserver.domain.stream.entity.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StreamRepository extends JpaRepository<Stream, Long> {
-    @Query("SELECT s FROM Stream s LEFT JOIN FETCH s.host")
+    @Query("SELECT s FROM Stream s LEFT JOIN FETCH s.host ORDER BY s.createdAt DESC, s.id DESC")
     Slice<Stream> findAllWithHost(Pageable pageable);
+
+    /**
+     * First page of the stream list, newest first.
+     */
+    @Query("SELECT s FROM Stream s JOIN FETCH s.host ORDER BY s.createdAt DESC, s.id DESC")
+    List<Stream> findLatestWithHost(Limit limit);
+
+    /**
+     * Keyset page: the streams after the given position, newest first.
+     * Served by the (created_at, id) index, so the cost does not grow with the page depth.
+     */
+    @Query("SELECT s FROM Stream s JOIN FETCH s.host "
+            + "WHERE s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id) "
+            + "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Stream> findWithHostBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT s FROM Stream s JOIN FETCH s.host WHERE s.id IN :ids")
+    List<Stream> findAllWithHostByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s FROM Stream s LEFT JOIN FETCH s.host WHERE s.id = :id")
+    Optional<Stream> findByIdWithHost(@Param("id") Long id);
 }
@@ -0,0 +1,296 @@
+package org.example.userserver.domain.stream.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis-backed, heartbeat-based viewer presence per stream.
+ * A stream keeps a sorted set of viewer IDs scored by last-seen time ({@code stream:viewers:{id}});
+ * a viewer counts as live while seen within {@code app.presence.ttl-ms}, and expired entries are trimmed
+ * by {@link #sweep}. Past {@code app.presence.max-exact-viewers} live viewers a stream switches to a
+ * compact representation: one HyperLogLog per TTL-long time bucket ({@code stream:viewers:hll:{id}:{bucket}}),
+ * counted over the current and previous bucket, marked by {@code stream:viewers:compact:{id}}.
+ * Mode switches happen inside the Lua scripts, so they are atomic.
+ * The same scripts keep the popularity ranking {@code stream:viewers:ranking} (stream ID scored by live viewer count)
+ * in step with every count they return, so ranked reads never need a per-stream count.
+ */
+@Repository
+public class ViewerPresenceRepository {
+
+    private static final String PRESENCE_PREFIX = "stream:viewers:";
+    private static final String COMPACT_MARKER_PREFIX = "stream:viewers:compact:";
+    private static final String UNIQUE_VIEWERS_PREFIX = "stream:viewers:hll:";
+    private static final String ACTIVE_STREAMS_KEY = "stream:viewers:active";
+    private static final String SWEEP_LOCK_KEY = "stream:viewers:sweep-lock";
+    private static final String RANKING_KEY = "stream:viewers:ranking";
+    // ZREM/PFADD unpack their arguments, which Lua limits to a few thousand.
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final RedisScript<Long> ENTER_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/viewer_enter.lua"), Long.class);
+    private static final RedisScript<Long> LEAVE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/viewer_leave.lua"), Long.class);
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/viewer_heartbeat.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SWEEP_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/viewer_sweep.lua"), List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int maxExactViewers;
+    private final long ttlMillis;
+
+    public ViewerPresenceRepository(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${app.presence.max-exact-viewers:10000}") int maxExactViewers,
+            @Value("${app.presence.ttl-ms:30000}") long ttlMillis
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.maxExactViewers = maxExactViewers;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Marks a viewer as present in a stream.
+     * @return The live viewer count after the add.
+     */
+    public long enter(Long streamId, Long userId) {
+        long now = System.currentTimeMillis();
+        List<String> keys = List.of(PRESENCE_PREFIX + streamId, COMPACT_MARKER_PREFIX + streamId,
+                bucketKey(streamId, now, 0), bucketKey(streamId, now, 1), ACTIVE_STREAMS_KEY, RANKING_KEY);
+        Long count = redisTemplate.execute(ENTER_SCRIPT, keys, String.valueOf(userId), String.valueOf(now),
+                String.valueOf(ttlMillis), String.valueOf(maxExactViewers), String.valueOf(streamId));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Removes a viewer from a stream.
+     * @return The live viewer count after the removal.
+     */
+    public long leave(Long streamId, Long userId) {
+        long now = System.currentTimeMillis();
+        List<String> keys = List.of(PRESENCE_PREFIX + streamId, COMPACT_MARKER_PREFIX + streamId,
+                bucketKey(streamId, now, 0), bucketKey(streamId, now, 1), RANKING_KEY);
+        Long count = redisTemplate.execute(LEAVE_SCRIPT, keys, String.valueOf(userId), String.valueOf(now),
+                String.valueOf(ttlMillis), String.valueOf(streamId));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Refreshes the last-seen time of many viewers across streams with a single pipelined round trip.
+     * @param viewersByStream The viewers that sent a heartbeat, grouped by stream.
+     */
+    @SuppressWarnings("unchecked")
+    public void heartbeat(Map<Long, ? extends Collection<Long>> viewersByStream) {
+        if (viewersByStream.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                viewersByStream.forEach((streamId, userIds) -> {
+                    List<String> keys = List.of(PRESENCE_PREFIX + streamId, COMPACT_MARKER_PREFIX + streamId,
+                            bucketKey(streamId, now, 0), ACTIVE_STREAMS_KEY);
+                    List<Long> ids = new ArrayList<>(userIds);
+                    for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+                        List<Long> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+                        Object[] args = new Object[chunk.size() + 3];
+                        args[0] = String.valueOf(now);
+                        args[1] = String.valueOf(ttlMillis);
+                        args[2] = String.valueOf(streamId);
+                        for (int i = 0; i < chunk.size(); i++) {
+                            args[i + 3] = String.valueOf(chunk.get(i));
+                        }
+                        ops.execute(HEARTBEAT_SCRIPT, keys, args);
+                    }
+                });
+                return null;
+            }
+        });
+    }
+
+    public long count(Long streamId) {
+        return countAll(List.of(streamId)).getOrDefault(streamId, 0L);
+    }
+
+    /**
+     * Reads the live viewer counts of several streams with a single pipelined round trip.
+     * Each stream costs a ZCOUNT (exact mode) and a PFCOUNT (compact mode); at most one of them is non-zero.
+     * @return The viewer count of each distinct stream ID, in request order.
+     */
+    public Map<Long, Long> countAll(Collection<Long> streamIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(streamIds));
+        Map<Long, Long> viewerCounts = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return viewerCounts;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long id : ids) {
+                connection.zSetCommands().zCount(bytes(PRESENCE_PREFIX + id), now - ttlMillis, Double.POSITIVE_INFINITY);
+                connection.hyperLogLogCommands().pfCount(bytes(bucketKey(id, now, 0)), bytes(bucketKey(id, now, 1)));
+            }
+            return null;
+        });
+
+        for (int i = 0; i < ids.size(); i++) {
+            long exact = toLong(2 * i < results.size() ? results.get(2 * i) : null);
+            long estimated = toLong(2 * i + 1 < results.size() ? results.get(2 * i + 1) : null);
+            viewerCounts.put(ids.get(i), exact > 0 ? exact : estimated);
+        }
+        return viewerCounts;
+    }
+
+    /**
+     * @return The IDs of all streams that currently hold presence entries.
+     */
+    public Set<Long> findActiveStreamIds() {
+        Set<String> members = redisTemplate.opsForSet().members(ACTIVE_STREAMS_KEY);
+        Set<Long> streamIds = new LinkedHashSet<>();
+        if (members != null) {
+            for (String member : members) {
+                streamIds.add(Long.parseLong(member));
+            }
+        }
+        return streamIds;
+    }
+
+    /**
+     * Removes up to {@code batchSize} expired viewers from a stream.
+     * @return The number of entries removed, the live count afterwards and whether the stream is in compact mode.
+     */
+    public SweepResult sweep(Long streamId, int batchSize) {
+        long now = System.currentTimeMillis();
+        List<String> keys = List.of(PRESENCE_PREFIX + streamId, COMPACT_MARKER_PREFIX + streamId,
+                bucketKey(streamId, now, 0), bucketKey(streamId, now, 1), ACTIVE_STREAMS_KEY, RANKING_KEY);
+        List<?> result = redisTemplate.execute(SWEEP_SCRIPT, keys, String.valueOf(now - ttlMillis),
+                String.valueOf(Math.min(batchSize, MAX_BATCH_SIZE)), String.valueOf(streamId));
+        if (result == null || result.size() < 3) {
+            return new SweepResult(0, 0, false);
+        }
+        return new SweepResult(toLong(result.get(0)), toLong(result.get(1)), toLong(result.get(2)) == 1);
+    }
+
+    /**
+     * Reads one page of the popularity ranking with a single ZREVRANGE, O(log N + K).
+     * @return Stream IDs with their viewer counts, most watched first.
+     */
+    public Map<Long, Long> findTopStreams(long offset, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> ranked =
+                redisTemplate.opsForZSet().reverseRangeWithScores(RANKING_KEY, offset, offset + limit - 1);
+        Map<Long, Long> viewerCounts = new LinkedHashMap<>();
+        if (ranked != null) {
+            for (ZSetOperations.TypedTuple<String> entry : ranked) {
+                if (entry.getValue() != null && entry.getScore() != null) {
+                    viewerCounts.put(Long.parseLong(entry.getValue()), entry.getScore().longValue());
+                }
+            }
+        }
+        return viewerCounts;
+    }
+
+    /**
+     * Writes viewer counts obtained outside the presence scripts into the popularity ranking, in one pipelined call.
+     * A count of zero removes the stream.
+     */
+    public void updateRanking(Map<Long, Long> viewerCounts) {
+        if (viewerCounts.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] key = bytes(RANKING_KEY);
+            viewerCounts.forEach((streamId, count) -> {
+                if (count > 0) {
+                    connection.zSetCommands().zAdd(key, count, bytes(String.valueOf(streamId)));
+                } else {
+                    connection.zSetCommands().zRem(key, bytes(String.valueOf(streamId)));
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Replaces the whole popularity ranking. The new ranking is built under a temporary key and renamed
+     * into place, so readers never see it half-written.
+     */
+    public void replaceRanking(Map<Long, Long> viewerCounts) {
+        String staging = RANKING_KEY + ":staging";
+        redisTemplate.delete(staging);
+        Set<ZSetOperations.TypedTuple<String>> entries = new LinkedHashSet<>();
+        viewerCounts.forEach((streamId, count) -> {
+            if (count > 0) {
+                entries.add(ZSetOperations.TypedTuple.of(String.valueOf(streamId), count.doubleValue()));
+            }
+        });
+        if (entries.isEmpty()) {
+            redisTemplate.delete(RANKING_KEY);
+            return;
+        }
+        redisTemplate.opsForZSet().add(staging, entries);
+        redisTemplate.rename(staging, RANKING_KEY);
+    }
+
+    /**
+     * Lets one instance at a time run the sweeper.
+     * @return True if this instance holds the sweep lock for the given duration.
+     */
+    public boolean tryAcquireSweepLock(Duration duration) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(SWEEP_LOCK_KEY, "1", duration));
+    }
+
+    /**
+     * Removes every presence key of a stream, whatever mode it is in.
+     */
+    public void clear(Long streamId) {
+        long now = System.currentTimeMillis();
+        redisTemplate.delete(List.of(PRESENCE_PREFIX + streamId, COMPACT_MARKER_PREFIX + streamId,
+                bucketKey(streamId, now, 0), bucketKey(streamId, now, 1)));
+        redisTemplate.opsForSet().remove(ACTIVE_STREAMS_KEY, String.valueOf(streamId));
+        redisTemplate.opsForZSet().remove(RANKING_KEY, String.valueOf(streamId));
+    }
+
+    public record SweepResult(long removed, long liveCount, boolean compact) {}
+
+    private String bucketKey(Long streamId, long now, int bucketsAgo) {
+        return UNIQUE_VIEWERS_PREFIX + streamId + ":" + (now / ttlMillis - bucketsAgo);
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long toLong(Object result) {
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return 0L;
+            }
+        }
+        return 0L;
+    }
+}
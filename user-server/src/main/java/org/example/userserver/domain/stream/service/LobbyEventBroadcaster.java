@@ -0,0 +1,383 @@
+package org.example.userserver.domain.stream.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.dto.response.LobbySubscriptionResponseDto;
+import org.example.userserver.domain.stream.dto.response.StreamUserCountUpdateDto;
+import org.example.userserver.domain.stream.exception.StreamException;
+import org.example.userserver.domain.stream.exception.StreamExceptionDetails;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans out viewer count changes to lobby SSE clients.
+ * <ul>
+ *     <li>Count changes are conflated per stream and sent as one {@code userCountSnapshot} event per tick.</li>
+ *     <li>A client may register the stream IDs it displays; it then only receives those streams.
+ *     Clients are indexed by stream ID, so a change only touches the clients interested in it.
+ *     Clients without interests receive every change.</li>
+ *     <li>Each changed stream is serialized once per tick; per-client snapshots are joined from
+ *     those fragments, and clients without interests share a single frame.</li>
+ *     <li>Writes happen on the {@code sseSendExecutor}, at most one drain task per client at a time,
+ *     through a bounded per-client buffer. A client whose buffer overflows is too slow to keep up and
+ *     is disconnected; the browser's EventSource reconnects and starts from the current list.</li>
+ *     <li>A single write that has not returned within {@code app.sse.write-timeout-ms} marks a stalled
+ *     connection: the client is dropped from fan-out at once and its emitter is completed. The blocked
+ *     write itself is released by the container's socket write timeout.</li>
+ *     <li>Connections are bounded: each node accepts at most {@code app.sse.max-connections}, emitters
+ *     time out after {@code app.sse.timeout-ms} (EventSource reconnects), and every client gets a comment
+ *     heartbeat each {@code app.sse.heartbeat-ms}. A client whose writes fail, or that has not completed a
+ *     write within {@code app.sse.idle-budget-ms} (a half-open connection behind a load balancer), is reaped.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class LobbyEventBroadcaster {
+
+    private static final String SNAPSHOT_EVENT = "userCountSnapshot";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT_FRAME =
+            SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor sseSendExecutor;
+    private final int bufferCapacity;
+    private final long timeoutMillis;
+    private final long idleBudgetMillis;
+    private final long writeTimeoutMillis;
+    private final int maxConnections;
+    private final Map<String, LobbyClient> clients = new ConcurrentHashMap<>();
+    // Clients that registered no interests and receive every change.
+    private final Set<LobbyClient> unfilteredClients = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<LobbyClient>> clientsByStream = new ConcurrentHashMap<>();
+    // Latest count per stream since the last tick; later changes overwrite earlier ones.
+    private final ConcurrentHashMap<Long, Long> pendingCounts = new ConcurrentHashMap<>();
+    private final Counter reapedSlow;
+    private final Counter reapedFailed;
+    private final Counter reapedIdle;
+    private final Counter reapedStalled;
+    private final Counter rejected;
+
+    public LobbyEventBroadcaster(
+            ObjectMapper objectMapper,
+            @Qualifier("sseSendExecutor") TaskExecutor sseSendExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.sse.buffer-capacity:16}") int bufferCapacity,
+            @Value("${app.sse.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${app.sse.idle-budget-ms:45000}") long idleBudgetMillis,
+            @Value("${app.sse.write-timeout-ms:5000}") long writeTimeoutMillis,
+            @Value("${app.sse.max-connections:10000}") int maxConnections
+    ) {
+        this.objectMapper = objectMapper;
+        this.sseSendExecutor = sseSendExecutor;
+        this.bufferCapacity = bufferCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.idleBudgetMillis = idleBudgetMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.maxConnections = maxConnections;
+        this.reapedSlow = reapedCounter(meterRegistry, "slow");
+        this.reapedFailed = reapedCounter(meterRegistry, "error");
+        this.reapedIdle = reapedCounter(meterRegistry, "idle");
+        this.reapedStalled = reapedCounter(meterRegistry, "stalled");
+        this.rejected = Counter.builder("sse.lobby.rejected")
+                .description("Lobby SSE connections refused because the node is at its connection cap")
+                .register(meterRegistry);
+        Gauge.builder("sse.lobby.connections", clients, Map::size)
+                .description("Open lobby SSE connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a new lobby client. The {@code connect} event carries the client ID used to update its interests.
+     * @param streamIds The streams the client displays, or null/empty to receive every stream.
+     * @return The emitter to return from the controller.
+     * @throws StreamException if this node already holds {@code app.sse.max-connections} connections.
+     */
+    public SseEmitter register(Collection<Long> streamIds) {
+        if (clients.size() >= maxConnections) {
+            rejected.increment();
+            throw new StreamException(StreamExceptionDetails.TOO_MANY_SSE_CONNECTIONS);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        LobbyClient client = new LobbyClient(UUID.randomUUID().toString(), emitter, new ArrayBlockingQueue<>(bufferCapacity));
+
+        emitter.onCompletion(() -> {
+            log.info("SSE connection completed. Removing emitter.");
+            remove(client);
+        });
+        emitter.onTimeout(() -> {
+            log.warn("SSE connection timed out. Removing emitter.");
+            emitter.complete();
+            remove(client);
+        });
+        emitter.onError(e -> remove(client));
+
+        clients.put(client.id, client);
+        updateInterests(client, streamIds);
+        // Send an initial event to confirm the connection.
+        enqueue(client, SseEmitter.event()
+                .name("connect")
+                .data(new LobbySubscriptionResponseDto(client.id), MediaType.APPLICATION_JSON)
+                .build());
+        return emitter;
+    }
+
+    /**
+     * Replaces the set of streams a client receives updates for.
+     * @param clientId The ID sent in the client's {@code connect} event.
+     * @param streamIds The streams the client displays, or null/empty to receive every stream.
+     * @return False if the client is not connected to this instance.
+     */
+    public boolean updateInterests(String clientId, Collection<Long> streamIds) {
+        LobbyClient client = clients.get(clientId);
+        if (client == null) {
+            return false;
+        }
+        updateInterests(client, streamIds);
+        return true;
+    }
+
+    /**
+     * Records a count change; it is delivered with the next tick.
+     */
+    public void publish(StreamUserCountUpdateDto dto) {
+        try {
+            pendingCounts.put(Long.parseLong(dto.streamId()), dto.userCount());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring user count update for invalid stream ID {}", dto.streamId());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.sse.tick-ms:1000}")
+    public void tick() {
+        if (pendingCounts.isEmpty()) {
+            return;
+        }
+        Map<Long, String> fragments = new LinkedHashMap<>();
+        for (Long streamId : pendingCounts.keySet()) {
+            Long count = pendingCounts.remove(streamId);
+            if (count == null) {
+                continue;
+            }
+            try {
+                fragments.put(streamId, objectMapper.writeValueAsString(StreamUserCountUpdateDto.builder()
+                        .streamId(String.valueOf(streamId))
+                        .userCount(count)
+                        .build()));
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing user count update for stream {}", streamId, e);
+            }
+        }
+        if (fragments.isEmpty() || clients.isEmpty()) {
+            return;
+        }
+
+        if (!unfilteredClients.isEmpty()) {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = snapshotFrame("[" + String.join(",", fragments.values()) + "]");
+            unfilteredClients.forEach(client -> enqueue(client, frame));
+        }
+
+        Map<LobbyClient, StringJoiner> snapshots = new HashMap<>();
+        fragments.forEach((streamId, fragment) -> {
+            Set<LobbyClient> interested = clientsByStream.get(streamId);
+            if (interested != null) {
+                interested.forEach(client -> snapshots
+                        .computeIfAbsent(client, k -> new StringJoiner(",", "[", "]"))
+                        .add(fragment));
+            }
+        });
+        snapshots.forEach((client, snapshot) -> enqueue(client, snapshotFrame(snapshot.toString())));
+    }
+
+    /**
+     * Sends a comment heartbeat to every client and reaps clients that have not completed a write
+     * within the idle budget. A failed heartbeat write reaps the client through the normal send path.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        clients.values().forEach(client -> {
+            if (now - client.lastWriteAt > idleBudgetMillis) {
+                log.info("SSE client {} has been idle for {} ms; reaping it.", client.id, now - client.lastWriteAt);
+                reapedIdle.increment();
+                close(client);
+            } else {
+                enqueue(client, HEARTBEAT_FRAME);
+            }
+        });
+    }
+
+    /**
+     * Disconnects clients with a write in progress for longer than the write timeout.
+     * The emitter is completed on the send executor: completion waits for the blocked write to give up,
+     * and must not hold up the scheduler meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.tick-ms:1000}")
+    public void reapStalled() {
+        long now = System.currentTimeMillis();
+        clients.values().forEach(client -> {
+            long sendStartedAt = client.sendStartedAt;
+            if (sendStartedAt != 0 && now - sendStartedAt > writeTimeoutMillis) {
+                log.info("SSE client {} has been blocked in a write for {} ms; disconnecting it.", client.id, now - sendStartedAt);
+                reapedStalled.increment();
+                remove(client);
+                try {
+                    sseSendExecutor.execute(() -> close(client));
+                } catch (Exception e) {
+                    log.warn("Could not complete stalled SSE client {}: {}", client.id, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> snapshotFrame(String json) {
+        return SseEmitter.event()
+                .name(SNAPSHOT_EVENT)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private void updateInterests(LobbyClient client, Collection<Long> streamIds) {
+        Set<Long> next = streamIds == null ? Set.of() : Set.copyOf(streamIds);
+        synchronized (client) {
+            if (!clients.containsKey(client.id)) {
+                return;
+            }
+            for (Long streamId : client.interests) {
+                if (!next.contains(streamId)) {
+                    unindex(client, streamId);
+                }
+            }
+            for (Long streamId : next) {
+                if (!client.interests.contains(streamId)) {
+                    clientsByStream.computeIfAbsent(streamId, k -> ConcurrentHashMap.newKeySet()).add(client);
+                }
+            }
+            client.interests = next;
+            if (next.isEmpty()) {
+                unfilteredClients.add(client);
+            } else {
+                unfilteredClients.remove(client);
+            }
+        }
+    }
+
+    private void unindex(LobbyClient client, Long streamId) {
+        clientsByStream.computeIfPresent(streamId, (k, interested) -> {
+            interested.remove(client);
+            return interested.isEmpty() ? null : interested;
+        });
+    }
+
+    private void remove(LobbyClient client) {
+        synchronized (client) {
+            if (clients.remove(client.id) == null) {
+                return;
+            }
+            unfilteredClients.remove(client);
+            client.interests.forEach(streamId -> unindex(client, streamId));
+            client.interests = Set.of();
+        }
+        client.buffer.clear();
+    }
+
+    private void enqueue(LobbyClient client, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (!client.buffer.offer(frame)) {
+            log.info("SSE client {} cannot keep up; disconnecting it.", client.id);
+            reapedSlow.increment();
+            close(client);
+            return;
+        }
+        scheduleDrain(client);
+    }
+
+    private void scheduleDrain(LobbyClient client) {
+        if (client.draining.compareAndSet(false, true)) {
+            try {
+                sseSendExecutor.execute(() -> drain(client));
+            } catch (Exception e) {
+                client.draining.set(false);
+                log.warn("Could not schedule SSE send for client {}: {}", client.id, e.getMessage());
+            }
+        }
+    }
+
+    private void drain(LobbyClient client) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = client.buffer.poll()) != null) {
+                client.sendStartedAt = System.currentTimeMillis();
+                client.emitter.send(frame);
+                client.lastWriteAt = System.currentTimeMillis();
+                client.sendStartedAt = 0;
+            }
+        } catch (Exception e) {
+            log.info("Client disconnected. Emitter will be removed.");
+            reapedFailed.increment();
+            close(client);
+            return;
+        } finally {
+            client.sendStartedAt = 0;
+            client.draining.set(false);
+        }
+        // A frame may have been enqueued after the last poll but before the flag was cleared.
+        if (!client.buffer.isEmpty()) {
+            scheduleDrain(client);
+        }
+    }
+
+    private void close(LobbyClient client) {
+        remove(client);
+        try {
+            client.emitter.complete();
+        } catch (Exception ignored) {
+            // The connection is already gone.
+        }
+    }
+
+    private static Counter reapedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("sse.lobby.reaped")
+                .description("Lobby SSE clients disconnected by the server")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class LobbyClient {
+        private final String id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long lastWriteAt = System.currentTimeMillis();
+        // Start of the write in progress, or 0 when no write is in progress.
+        private volatile long sendStartedAt;
+        // Guarded by the client's monitor; empty means every stream.
+        private Set<Long> interests = Set.of();
+
+        private LobbyClient(String id, SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer) {
+            this.id = id;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
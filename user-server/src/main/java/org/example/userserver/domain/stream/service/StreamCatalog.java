@@ -0,0 +1,291 @@
+package org.example.userserver.domain.stream.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.example.userserver.domain.stream.dto.StreamCursor;
+import org.example.userserver.domain.stream.entity.Stream;
+import org.example.userserver.domain.stream.repository.StreamRepository;
+import org.example.userserver.global.datasource.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of stream metadata joined with the host profile, so stream list and stream page
+ * reads do not go to MySQL each time.
+ * <ul>
+ *     <li>Single streams and list pages are cached separately; both hold immutable {@link StreamCatalogEntryDto}s.</li>
+ *     <li>Concurrent misses for the same stream share one query, so a join storm on a stream costs one
+ *     database read per instance.</li>
+ *     <li>{@link StreamCatalogInvalidator} announces committed stream and user changes on {@value #CHANNEL};
+ *     every instance, including the writer, evicts the affected streams and all cached pages.</li>
+ *     <li>Entries also expire after {@code app.catalog.ttl-ms}, which bounds staleness if an invalidation is missed.
+ *     Both caches are size-bounded: when full, expired entries are purged and, if still full, new entries are not cached.</li>
+ *     <li>Loads always read the primary, even with replica routing enabled: most of them follow an invalidation,
+ *     and a row read from a lagging replica would be cached for the full TTL. The cache already absorbs the
+ *     read volume, so little is lost by not offloading the misses.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class StreamCatalog implements MessageListener {
+
+    public static final String CHANNEL = "catalog:invalidate";
+    static final String STREAM_PREFIX = "stream:";
+    public static final String USER_PREFIX = "user:";
+
+    private final StreamRepository streamRepository;
+    private final int maxStreams;
+    private final int maxPages;
+    private final long ttlMillis;
+    private final Map<Long, CachedStream> streams = new ConcurrentHashMap<>();
+    private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Optional<StreamCatalogEntryDto>>> loading = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so a load racing with an invalidation does not cache the old row.
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public StreamCatalog(
+            StreamRepository streamRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.catalog.max-streams:10000}") int maxStreams,
+            @Value("${app.catalog.max-pages:1000}") int maxPages,
+            @Value("${app.catalog.ttl-ms:300000}") long ttlMillis
+    ) {
+        this.streamRepository = streamRepository;
+        this.maxStreams = maxStreams;
+        this.maxPages = maxPages;
+        this.ttlMillis = ttlMillis;
+        this.hits = Counter.builder("stream.catalog.requests")
+                .description("Stream catalog reads served from memory")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("stream.catalog.requests")
+                .description("Stream catalog reads that queried the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("stream.catalog.size", streams, Map::size)
+                .description("Number of streams held by the catalog cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The stream with its host, or empty if it does not exist.
+     */
+    public Optional<StreamCatalogEntryDto> findStream(Long streamId) {
+        long now = System.currentTimeMillis();
+        CachedStream cached = streams.get(streamId);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return Optional.of(cached.entry());
+        }
+
+        CompletableFuture<Optional<StreamCatalogEntryDto>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<StreamCatalogEntryDto>> inFlight = loading.putIfAbsent(streamId, load);
+        if (inFlight != null) {
+            hits.increment();
+            return await(inFlight);
+        }
+
+        misses.increment();
+        try {
+            long generation = invalidations.get();
+            Optional<StreamCatalogEntryDto> entry = ReadWriteRoutingDataSource.onPrimary(
+                    () -> streamRepository.findByIdWithHost(streamId).map(StreamCatalogEntryDto::from));
+            entry.ifPresent(value -> cacheStream(value, generation, now));
+            load.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(streamId, load);
+        }
+    }
+
+    /**
+     * Looks up several streams at once; the ones not cached are loaded with a single query.
+     * @return The streams that exist, keyed by ID, in request order.
+     */
+    public Map<Long, StreamCatalogEntryDto> findStreams(Collection<Long> streamIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, StreamCatalogEntryDto> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long streamId : streamIds) {
+            CachedStream cached = streams.get(streamId);
+            if (cached != null && cached.expiresAtMillis() > now) {
+                found.put(streamId, cached.entry());
+            } else {
+                found.put(streamId, null);
+                missing.add(streamId);
+            }
+        }
+        if (missing.isEmpty()) {
+            hits.increment();
+            return found;
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        List<Stream> loaded = ReadWriteRoutingDataSource.onPrimary(() -> streamRepository.findAllWithHostByIdIn(missing));
+        for (Stream stream : loaded) {
+            StreamCatalogEntryDto entry = StreamCatalogEntryDto.from(stream);
+            found.put(entry.id(), entry);
+            cacheStream(entry, generation, now);
+        }
+        found.values().removeIf(Objects::isNull);
+        return found;
+    }
+
+    /**
+     * @return One offset page of the stream list, newest first, with hosts.
+     */
+    public CatalogPage findPage(Pageable pageable) {
+        String key = "offset:" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+        return findPage(key, () -> {
+            Slice<Stream> slice = streamRepository.findAllWithHost(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+            return new CatalogPage(toEntries(slice.getContent()), slice.hasNext(), slice.getNumber(), slice.getSize());
+        });
+    }
+
+    /**
+     * @param cursor The position after which the page starts, or null for the first page.
+     * @return One keyset page of the stream list, newest first, with hosts.
+     */
+    public CatalogPage findPageAfter(StreamCursor cursor, int size) {
+        String key = "after:" + (cursor != null ? cursor.encode() : "") + ":" + size;
+        return findPage(key, () -> {
+            // One extra row tells whether there is a next page.
+            Limit limit = Limit.of(size + 1);
+            List<Stream> rows = cursor == null
+                    ? streamRepository.findLatestWithHost(limit)
+                    : streamRepository.findWithHostBefore(cursor.createdAt(), cursor.id(), limit);
+            boolean hasNext = rows.size() > size;
+            return new CatalogPage(toEntries(hasNext ? rows.subList(0, size) : rows), hasNext, 0, size);
+        });
+    }
+
+    private CatalogPage findPage(String key, Supplier<CatalogPage> loader) {
+        long now = System.currentTimeMillis();
+        CachedPage cached = pages.get(key);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.page();
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        CatalogPage page = ReadWriteRoutingDataSource.onPrimary(loader);
+        page.streams().forEach(entry -> cacheStream(entry, generation, now));
+        if (canAdd(pages, key, maxPages)) {
+            CachedPage loaded = new CachedPage(page, now + ttlMillis);
+            pages.put(key, loaded);
+            if (invalidations.get() != generation) {
+                pages.remove(key, loaded);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (body.startsWith(STREAM_PREFIX)) {
+                evictStream(Long.parseLong(body.substring(STREAM_PREFIX.length())));
+            } else if (body.startsWith(USER_PREFIX)) {
+                evictHost(Long.parseLong(body.substring(USER_PREFIX.length())));
+            } else {
+                log.warn("Ignoring malformed catalog invalidation: {}", body);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed catalog invalidation: {}", body);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        streams.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+        pages.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+    }
+
+    private void evictStream(Long streamId) {
+        invalidations.incrementAndGet();
+        streams.remove(streamId);
+        pages.clear();
+    }
+
+    private void evictHost(Long userId) {
+        invalidations.incrementAndGet();
+        streams.values().removeIf(cached -> cached.entry().hostId().equals(userId));
+        pages.clear();
+    }
+
+    private void cacheStream(StreamCatalogEntryDto entry, long generation, long now) {
+        if (!canAdd(streams, entry.id(), maxStreams)) {
+            return;
+        }
+        CachedStream loaded = new CachedStream(entry, now + ttlMillis);
+        streams.put(entry.id(), loaded);
+        if (invalidations.get() != generation) {
+            streams.remove(entry.id(), loaded);
+        }
+    }
+
+    private static List<StreamCatalogEntryDto> toEntries(List<Stream> rows) {
+        return rows.stream().map(StreamCatalogEntryDto::from).toList();
+    }
+
+    private <K> boolean canAdd(Map<K, ?> cache, K key, int maxSize) {
+        if (maxSize <= 0) {
+            return false;
+        }
+        if (cache.size() >= maxSize && !cache.containsKey(key)) {
+            purgeExpired();
+            return cache.size() < maxSize;
+        }
+        return true;
+    }
+
+    private static Optional<StreamCatalogEntryDto> await(CompletableFuture<Optional<StreamCatalogEntryDto>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public record CatalogPage(List<StreamCatalogEntryDto> streams, boolean hasNext, int pageNumber, int pageSize) {}
+
+    private record CachedStream(StreamCatalogEntryDto entry, long expiresAtMillis) {}
+
+    private record CachedPage(CatalogPage page, long expiresAtMillis) {}
+}
@@ -0,0 +1,62 @@
+package org.example.userserver.domain.stream.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.entity.Stream;
+import org.example.userserver.domain.user.entity.User;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener on {@link Stream} and {@link User} that announces changes to the {@link StreamCatalog}
+ * of every instance. Messages are sent after the transaction commits, so no instance can reload the old row
+ * after being told to evict it. It only publishes; the local catalog evicts when the message comes back,
+ * which keeps this listener free of repository dependencies while Hibernate is being set up.
+ */
+@Slf4j
+@Component
+public class StreamCatalogInvalidator {
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public StreamCatalogInvalidator(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Stream stream) {
+            publishAfterCommit(StreamCatalog.STREAM_PREFIX + stream.getId());
+        } else if (entity instanceof User user) {
+            publishAfterCommit(StreamCatalog.USER_PREFIX + user.getId());
+        }
+    }
+
+    private void publishAfterCommit(String message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(message);
+            }
+        });
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(StreamCatalog.CHANNEL, message);
+        } catch (Exception e) {
+            // The catalog TTL still bounds how long other instances serve the old row.
+            log.warn("Failed to publish catalog invalidation {}: {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package org.example.userserver.domain.stream.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.example.userserver.domain.stream.dto.StreamCursor;
+import org.example.userserver.domain.stream.entity.Stream;
+import org.example.userserver.domain.stream.repository.StreamRepository;
+import org.example.userserver.global.datasource.ReadWriteRoutingDataSource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process bigram inverted index over stream titles and host names.
+ * <ul>
+ *     <li>Each stream gets a dense int document ID; every distinct bigram of its lower-cased title and host name
+ *     maps to a sorted {@code int[]} posting list of document IDs.</li>
+ *     <li>A query intersects the posting lists of its bigrams, shortest first, and confirms each candidate
+ *     with a substring check, since co-occurring bigrams do not guarantee a match.</li>
+ *     <li>The index is built from MySQL once the application is ready, paging by keyset. Afterwards it listens
+ *     to the catalog invalidation channel and re-indexes changed streams and hosts in batches.</li>
+ * </ul>
+ * Bigrams rather than trigrams, so two-syllable Korean words are searchable.
+ */
+@Slf4j
+@Component
+public class StreamSearchIndex implements MessageListener {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final StreamRepository streamRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock.
+    private final Map<Integer, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docIdsByStream = new HashMap<>();
+    private long[] streamIds = new long[1024];
+    private long[] hostIds = new long[1024];
+    private String[] titles = new String[1024];
+    private String[] hostNames = new String[1024];
+    private int docCount;
+
+    // Streams and hosts changed since the last refresh.
+    private final Set<Long> dirtyStreams = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyHosts = ConcurrentHashMap.newKeySet();
+
+    public StreamSearchIndex(StreamRepository streamRepository) {
+        this.streamRepository = streamRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        int indexed = 0;
+        StreamCursor cursor = null;
+        while (true) {
+            List<Stream> batch = cursor == null
+                    ? streamRepository.findLatestWithHost(Limit.of(BUILD_BATCH_SIZE))
+                    : streamRepository.findWithHostBefore(cursor.createdAt(), cursor.id(), Limit.of(BUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<StreamCatalogEntryDto> entries = batch.stream().map(StreamCatalogEntryDto::from).toList();
+            index(entries);
+            indexed += entries.size();
+            cursor = StreamCursor.of(entries.get(entries.size() - 1));
+        }
+        log.info("Indexed {} streams for search in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Finds every stream whose title or host name contains the query, case-insensitively.
+     * @param query At least {@value #MIN_QUERY_LENGTH} characters after trimming.
+     * @return Matching stream IDs, in no particular order.
+     */
+    public Set<Long> search(String query) {
+        String normalized = normalize(query);
+        int[] grams = grams(normalized, "");
+        if (grams.length == 0) {
+            return Set.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return Set.of();
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            PostingList shortest = lists[0];
+            Set<Long> matches = new HashSet<>();
+            for (int i = 0; i < shortest.size; i++) {
+                int docId = shortest.docs[i];
+                if (containsInAll(lists, docId)
+                        && (titles[docId].contains(normalized) || hostNames[docId].contains(normalized))) {
+                    matches.add(streamIds[docId]);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (body.startsWith(StreamCatalog.STREAM_PREFIX)) {
+                dirtyStreams.add(Long.parseLong(body.substring(StreamCatalog.STREAM_PREFIX.length())));
+            } else if (body.startsWith(StreamCatalog.USER_PREFIX)) {
+                dirtyHosts.add(Long.parseLong(body.substring(StreamCatalog.USER_PREFIX.length())));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed catalog invalidation: {}", body);
+        }
+    }
+
+    /**
+     * Re-indexes the streams and hosts changed since the last run with one query per batch.
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (dirtyStreams.isEmpty() && dirtyHosts.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>();
+        drain(dirtyStreams, changed);
+        Set<Long> hosts = new HashSet<>();
+        drain(dirtyHosts, hosts);
+        if (!hosts.isEmpty()) {
+            lock.readLock().lock();
+            try {
+                for (int docId = 0; docId < docCount; docId++) {
+                    if (streamIds[docId] != 0 && hosts.contains(hostIds[docId])) {
+                        changed.add(streamIds[docId]);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            // Re-read from the primary: a lagging replica could return the row from before the change.
+            List<StreamCatalogEntryDto> entries = ReadWriteRoutingDataSource.onPrimary(
+                    () -> streamRepository.findAllWithHostByIdIn(changed).stream().map(StreamCatalogEntryDto::from).toList());
+            Set<Long> deleted = new HashSet<>(changed);
+            entries.forEach(entry -> deleted.remove(entry.id()));
+            remove(deleted);
+            index(entries);
+        } catch (Exception e) {
+            // Retry on the next run.
+            log.warn("Failed to re-index {} streams: {}", changed.size(), e.getMessage());
+            dirtyStreams.addAll(changed);
+        }
+    }
+
+    // Package-private for tests and benchmarks, which index without a database.
+    void index(List<StreamCatalogEntryDto> entries) {
+        lock.writeLock().lock();
+        try {
+            for (StreamCatalogEntryDto entry : entries) {
+                removeLocked(entry.id());
+                Integer existing = docIdsByStream.get(entry.id());
+                int docId = existing != null ? existing : newDocId();
+                docIdsByStream.put(entry.id(), docId);
+                streamIds[docId] = entry.id();
+                hostIds[docId] = entry.hostId();
+                titles[docId] = normalize(entry.title());
+                hostNames[docId] = normalize(entry.hostName());
+                for (int gram : grams(titles[docId], hostNames[docId])) {
+                    postings.computeIfAbsent(gram, k -> new PostingList()).add(docId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Collection<Long> streamIds) {
+        lock.writeLock().lock();
+        try {
+            streamIds.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Unlinks a stream from the posting lists. Its document ID stays reserved for it, so a re-indexed
+     * stream keeps its slot and deleted streams leave a hole marked by stream ID 0.
+     */
+    private void removeLocked(Long streamId) {
+        Integer docId = docIdsByStream.get(streamId);
+        if (docId == null || streamIds[docId] == 0) {
+            return;
+        }
+        for (int gram : grams(titles[docId], hostNames[docId])) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(docId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        streamIds[docId] = 0;
+        titles[docId] = "";
+        hostNames[docId] = "";
+    }
+
+    private int newDocId() {
+        if (docCount == streamIds.length) {
+            int capacity = streamIds.length * 2;
+            streamIds = Arrays.copyOf(streamIds, capacity);
+            hostIds = Arrays.copyOf(hostIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            hostNames = Arrays.copyOf(hostNames, capacity);
+        }
+        return docCount++;
+    }
+
+    private static boolean containsInAll(PostingList[] lists, int docId) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(docId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void drain(Set<Long> source, Set<Long> target) {
+        for (Long id : source) {
+            if (source.remove(id)) {
+                target.add(id);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The distinct bigrams of both texts, each packed into an int as two UTF-16 code units.
+     */
+    private static int[] grams(String first, String second) {
+        Set<Integer> grams = new HashSet<>();
+        addGrams(first, grams);
+        addGrams(second, grams);
+        int[] result = new int[grams.size()];
+        int i = 0;
+        for (int gram : grams) {
+            result[i++] = gram;
+        }
+        return result;
+    }
+
+    private static void addGrams(String text, Set<Integer> grams) {
+        for (int i = 0; i + 1 < text.length(); i++) {
+            grams.add((text.charAt(i) << 16) | text.charAt(i + 1));
+        }
+    }
+
+    /**
+     * Sorted, growable list of document IDs.
+     */
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int docId) {
+            int index = Arrays.binarySearch(docs, 0, size, docId);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = docId;
+            size++;
+        }
+
+        boolean remove(int docId) {
+            int index = Arrays.binarySearch(docs, 0, size, docId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int docId) {
+            return Arrays.binarySearch(docs, 0, size, docId) >= 0;
+        }
+    }
+}
@@ -2,22 +2,43 @@ package org.example.userserver.domain.stream.service;
 
 import org.example.userserver.domain.stream.dto.response.ReadStreamListResponseDto;
 import org.example.userserver.domain.stream.dto.response.ReadStreamResponseDto;
+import org.example.userserver.domain.stream.dto.response.ReadViewerCountListResponseDto;
 import org.example.userserver.domain.stream.dto.response.StreamUserCountUpdateDto;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface StreamService {
-    ReadStreamListResponseDto getAllStreams(Pageable pageable);
+    ReadStreamListResponseDto getAllStreams(String cursor, Pageable pageable);
+
+    ReadStreamListResponseDto getPopularStreams(Pageable pageable);
+
+    ReadStreamListResponseDto searchStreams(String query, int limit);
+
+    String getStreamListETag(String cursor, Pageable pageable);
+
+    String getStreamETag(Long streamId);
 
     void enterStream(Long userId, Long streamId);
 
     void leaveStream(Long userId, Long streamId);
 
-    SseEmitter subscribe();
+    boolean heartbeat(Long userId, Long streamId);
+
+    SseEmitter subscribe(List<Long> streamIds);
+
+    void updateSubscription(String clientId, List<Long> streamIds);
 
     void notifyUserCountUpdate(StreamUserCountUpdateDto dto);
 
     long getStreamViewerCount(Long streamId);
 
+    Map<Long, Long> getStreamViewerCounts(Collection<Long> streamIds);
+
+    ReadViewerCountListResponseDto readViewerCounts(List<Long> streamIds);
+
     ReadStreamResponseDto readStreamInfo(Long streamId);
 }
@@ -0,0 +1,92 @@
+package org.example.userserver.domain.stream.service;
+
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cheap versions of stream data, used as ETags for the stream list and stream detail.
+ * A tag is a 64-bit hash of the data the response shows, taken from state every instance shares:
+ * <ul>
+ *     <li>the catalog entries (stream and host), as cached by {@link StreamCatalog} and kept current by its invalidations;</li>
+ *     <li>the last viewer count announced for each stream, which every instance receives over pub/sub;</li>
+ *     <li>for the detail, the stream summary, read through the near-cache.</li>
+ * </ul>
+ * Instances that have received the same changes therefore compute the same tag, so a poll that lands on
+ * another instance is still answered with 304.
+ * Announced counts are dropped once a stream has had no update for {@code app.etag.idle-ms}; until the next
+ * announcement its tags carry an "unknown" count, which never matches a tag computed with a real one.
+ */
+@Component
+public class StreamVersions {
+
+    private static final long UNKNOWN_COUNT = -1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private final long idleMillis;
+    private final Map<Long, AnnouncedCount> viewerCounts = new ConcurrentHashMap<>();
+
+    public StreamVersions(@Value("${app.etag.idle-ms:600000}") long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    public void viewerCountChanged(Long streamId, long viewerCount) {
+        viewerCounts.put(streamId, new AnnouncedCount(viewerCount, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return The weak ETag of one stream's detail.
+     */
+    public String streamTag(StreamCatalogEntryDto stream, String summary) {
+        long hash = hashEntry(FNV_OFFSET, stream);
+        hash = hash(hash, summary == null ? "" : summary);
+        return tag(hash);
+    }
+
+    /**
+     * @param page The page, as listed.
+     * @param nextCursor The cursor the response hands out for the next page, or null.
+     * @return The weak ETag of a list page, covering its entries and its pagination fields.
+     */
+    public String pageTag(StreamCatalog.CatalogPage page, String nextCursor) {
+        long hash = FNV_OFFSET;
+        for (StreamCatalogEntryDto stream : page.streams()) {
+            hash = hashEntry(hash, stream);
+        }
+        hash = hash(hash, page.hasNext() + "|" + page.pageNumber() + "|" + page.pageSize() + "|" + nextCursor);
+        return tag(hash);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleStreams() {
+        long now = System.currentTimeMillis();
+        viewerCounts.values().removeIf(announced -> now - announced.announcedAt() > idleMillis);
+    }
+
+    private long hashEntry(long hash, StreamCatalogEntryDto stream) {
+        AnnouncedCount announced = viewerCounts.get(stream.id());
+        return hash(hash, stream.id() + "|" + stream.hostId() + "|" + stream.title() + "|" + stream.thumbnailUrl()
+                + "|" + stream.hostName() + "|" + stream.hostProfileImage() + "|" + stream.createdAt()
+                + "|" + (announced == null ? UNKNOWN_COUNT : announced.count()) + ";");
+    }
+
+    private static String tag(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, so every instance and JVM computes the same value.
+    private static long hash(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private record AnnouncedCount(long count, long announcedAt) {}
+}
@@ -0,0 +1,247 @@
+package org.example.userserver.domain.stream.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.dto.SubscriberCountReportDto;
+import org.example.userserver.domain.stream.repository.ViewerPresenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges the subscriber count reports of all chat-server instances into live viewer counts.
+ * Every user-server instance keeps the merged totals in memory and can answer count reads without Redis.
+ * Only the instance holding the aggregator lease publishes {@code stream-update} messages for changed
+ * totals (through the {@link ViewerCountDebouncer}), so viewers see one update per change, and only while
+ * {@code app.viewer-count.source} is {@code subscriptions}; otherwise presence owns the published counts.
+ * The same instance keeps the popularity ranking in Redis up to date, rewriting it in full when it takes the lease.
+ * An instance that has not reported for {@code instance-timeout-reports} intervals is treated as gone.
+ */
+@Slf4j
+@Component
+public class ViewerCountAggregator implements MessageListener {
+
+    public static final String CHANNEL = "viewer-counts:reports";
+    private static final String LEADER_KEY = "viewer-counts:aggregator";
+
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ViewerCountDebouncer viewerCountDebouncer;
+    private final ViewerPresenceRepository viewerPresenceRepository;
+    private final long instanceTimeoutMillis;
+    private final Duration leaseDuration;
+    private final boolean publishing;
+    private final String aggregatorId = UUID.randomUUID().toString();
+
+    private final Map<String, InstanceState> instances = new HashMap<>();
+    private final Map<Long, Long> totals = new ConcurrentHashMap<>();
+    // Serializes the Redis writes for changed totals; the instance monitor only guards the in-memory state.
+    private final Object publishLock = new Object();
+    private volatile boolean leader;
+
+    public ViewerCountAggregator(
+            ObjectMapper objectMapper,
+            RedisTemplate<String, String> redisTemplate,
+            ViewerCountDebouncer viewerCountDebouncer,
+            ViewerPresenceRepository viewerPresenceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.viewer-count.report-interval-ms:2000}") long reportIntervalMillis,
+            @Value("${app.viewer-count.instance-timeout-reports:3}") int instanceTimeoutReports,
+            @Value("${app.viewer-count.source:subscriptions}") String viewerCountSource
+    ) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.viewerCountDebouncer = viewerCountDebouncer;
+        this.viewerPresenceRepository = viewerPresenceRepository;
+        this.instanceTimeoutMillis = reportIntervalMillis * Math.max(1, instanceTimeoutReports);
+        this.leaseDuration = Duration.ofMillis(instanceTimeoutMillis);
+        this.publishing = "subscriptions".equals(viewerCountSource);
+
+        Gauge.builder("stream.viewer_count.reporting_instances", this, ViewerCountAggregator::reportingInstances)
+                .description("chat-server instances currently reporting subscriber counts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The aggregated live viewer count of each requested stream, in request order.
+     */
+    public Map<Long, Long> countAll(Collection<Long> streamIds) {
+        Map<Long, Long> viewerCounts = new LinkedHashMap<>();
+        for (Long streamId : streamIds) {
+            viewerCounts.put(streamId, totals.getOrDefault(streamId, 0L));
+        }
+        return viewerCounts;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        SubscriberCountReportDto report;
+        try {
+            report = objectMapper.readValue(message.getBody(), SubscriberCountReportDto.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed subscriber count report: {}", e.getMessage());
+            return;
+        }
+        publish(apply(report, System.currentTimeMillis()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.viewer-count.report-interval-ms:2000}")
+    public void expireAndRenewLease() {
+        renewLease();
+        long now = System.currentTimeMillis();
+        Set<Long> affected = new HashSet<>();
+        Set<Long> changed;
+        synchronized (this) {
+            Iterator<Map.Entry<String, InstanceState>> iterator = instances.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, InstanceState> entry = iterator.next();
+                if (now - entry.getValue().lastSeen > instanceTimeoutMillis) {
+                    log.warn("chat-server instance {} stopped reporting; dropping its {} stream counts",
+                            entry.getKey(), entry.getValue().counts.size());
+                    affected.addAll(entry.getValue().counts.keySet());
+                    iterator.remove();
+                }
+            }
+            changed = recompute(affected);
+        }
+        publish(changed);
+    }
+
+    /**
+     * @return The streams whose total changed.
+     */
+    private synchronized Set<Long> apply(SubscriberCountReportDto report, long now) {
+        InstanceState state = instances.computeIfAbsent(report.instanceId(), id -> new InstanceState());
+        if (!report.full() && state.sequence >= 0 && report.sequence() != state.sequence + 1) {
+            // Counts are absolute, so the listed streams are still correct; others are repaired by the next full report.
+            log.debug("Gap in subscriber count reports from {}: expected {}, got {}",
+                    report.instanceId(), state.sequence + 1, report.sequence());
+        }
+        state.sequence = report.sequence();
+        state.lastSeen = now;
+
+        Set<Long> affected = new HashSet<>();
+        if (report.full()) {
+            affected.addAll(state.counts.keySet());
+            state.counts.clear();
+        }
+        if (report.counts() != null) {
+            report.counts().forEach((rawStreamId, count) -> {
+                Long streamId;
+                try {
+                    streamId = Long.parseLong(rawStreamId);
+                } catch (NumberFormatException e) {
+                    return;
+                }
+                if (count != null && count > 0) {
+                    state.counts.put(streamId, count);
+                } else {
+                    state.counts.remove(streamId);
+                }
+                affected.add(streamId);
+            });
+        }
+        if (report.full() && state.counts.isEmpty()) {
+            // An empty full report is sent on shutdown.
+            instances.remove(report.instanceId());
+        }
+        return recompute(affected);
+    }
+
+    /**
+     * Updates the totals of the given streams. Called under the instance monitor, so it does no I/O.
+     * @return The streams whose total changed.
+     */
+    private Set<Long> recompute(Set<Long> streamIds) {
+        Set<Long> changed = new HashSet<>();
+        for (Long streamId : streamIds) {
+            long total = 0;
+            for (InstanceState state : instances.values()) {
+                total += state.counts.getOrDefault(streamId, 0);
+            }
+            Long previous = total > 0 ? totals.put(streamId, total) : totals.remove(streamId);
+            if ((previous == null ? 0L : previous) != total) {
+                changed.add(streamId);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Publishes changed totals and writes them to the popularity ranking, outside the instance monitor so
+     * report handling and count reads never wait for Redis. Publishes are serialized and read the totals
+     * when they run, so a slow publish cannot overwrite a newer count with the one it was started for.
+     */
+    private void publish(Set<Long> streamIds) {
+        if (streamIds.isEmpty() || !leader || !publishing) {
+            return;
+        }
+        synchronized (publishLock) {
+            Map<Long, Long> latest = new HashMap<>();
+            for (Long streamId : streamIds) {
+                long total = totals.getOrDefault(streamId, 0L);
+                viewerCountDebouncer.update(streamId, total);
+                latest.put(streamId, total);
+            }
+            try {
+                viewerPresenceRepository.updateRanking(latest);
+            } catch (Exception e) {
+                log.warn("Failed to update the popularity ranking for {} streams: {}", latest.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void renewLease() {
+        boolean wasLeader = leader;
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEADER_KEY, aggregatorId, leaseDuration))) {
+                leader = true;
+            } else if (aggregatorId.equals(redisTemplate.opsForValue().get(LEADER_KEY))) {
+                redisTemplate.expire(LEADER_KEY, leaseDuration);
+                leader = true;
+            } else {
+                leader = false;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to renew the viewer count aggregator lease: {}", e.getMessage());
+            leader = false;
+        }
+        if (leader && !wasLeader && publishing) {
+            // The previous leader may have died mid-update; start from this instance's totals.
+            synchronized (publishLock) {
+                try {
+                    viewerPresenceRepository.replaceRanking(new HashMap<>(totals));
+                } catch (Exception e) {
+                    log.warn("Failed to rebuild the popularity ranking: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized int reportingInstances() {
+        return instances.size();
+    }
+
+    private static final class InstanceState {
+        private final Map<Long, Integer> counts = new HashMap<>();
+        private long sequence = -1;
+        private long lastSeen;
+    }
+}
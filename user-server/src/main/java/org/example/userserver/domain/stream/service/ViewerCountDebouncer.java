@@ -0,0 +1,127 @@
+package org.example.userserver.domain.stream.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.dto.response.StreamUserCountUpdateDto;
+import org.example.userserver.domain.stream.repository.ViewerPresenceRepository;
+import org.example.userserver.global.redis.RedisPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes at most one {@code stream-update} per stream per interval.
+ * The first change after a quiet period is published immediately with the reported count.
+ * Further changes within the interval only mark the stream dirty; the flusher then publishes each dirty
+ * stream once. With Redis presence as the count source, the flusher re-reads the counts of all dirty
+ * streams in one pipelined call, so the last published value is always the current count even if
+ * concurrent joins reported theirs out of order. Counts from the subscription aggregator arrive in order
+ * and are published as reported.
+ */
+@Slf4j
+@Component
+public class ViewerCountDebouncer {
+
+    private static final String STREAM_UPDATE_TYPE = "stream-update";
+
+    private final RedisPublisher redisPublisher;
+    private final ViewerPresenceRepository viewerPresenceRepository;
+    private final long intervalMillis;
+    private final boolean rereadOnFlush;
+    private final Map<Long, StreamState> states = new ConcurrentHashMap<>();
+    private final Counter published;
+    private final Counter coalesced;
+
+    public ViewerCountDebouncer(
+            RedisPublisher redisPublisher,
+            ViewerPresenceRepository viewerPresenceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.presence.publish-interval-ms:500}") long intervalMillis,
+            @Value("${app.viewer-count.source:subscriptions}") String viewerCountSource
+    ) {
+        this.redisPublisher = redisPublisher;
+        this.viewerPresenceRepository = viewerPresenceRepository;
+        this.intervalMillis = intervalMillis;
+        this.rereadOnFlush = !"subscriptions".equals(viewerCountSource);
+        this.published = Counter.builder("stream.user_count.updates")
+                .description("Viewer count changes handled by the debouncer")
+                .tag("outcome", "published")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("stream.user_count.updates")
+                .description("Viewer count changes handled by the debouncer")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reports a new viewer count for a stream.
+     * @param streamId The stream whose count changed.
+     * @param userCount The new count.
+     */
+    public void update(Long streamId, long userCount) {
+        StreamState state = states.computeIfAbsent(streamId, k -> new StreamState());
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            state.latest = userCount;
+            if (state.dirty || now - state.lastPublishedAt < intervalMillis) {
+                state.dirty = true;
+                coalesced.increment();
+                return;
+            }
+            state.lastPublishedAt = now;
+        }
+        publish(streamId, userCount);
+    }
+
+    @Scheduled(fixedRateString = "${app.presence.publish-interval-ms:500}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> due = new LinkedHashMap<>();
+        states.forEach((streamId, state) -> {
+            synchronized (state) {
+                if (state.dirty && now - state.lastPublishedAt >= intervalMillis) {
+                    state.dirty = false;
+                    state.lastPublishedAt = now;
+                    due.put(streamId, state.latest);
+                }
+            }
+        });
+        // Streams that have been quiet for a while no longer need their state.
+        states.entrySet().removeIf(entry -> isIdle(entry.getValue(), now));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        try {
+            (rereadOnFlush ? viewerPresenceRepository.countAll(due.keySet()) : due).forEach(this::publish);
+        } catch (Exception e) {
+            log.warn("Failed to flush debounced viewer counts for {} streams: {}", due.size(), e.getMessage());
+        }
+    }
+
+    private boolean isIdle(StreamState state, long now) {
+        synchronized (state) {
+            return !state.dirty && now - state.lastPublishedAt >= 60 * intervalMillis;
+        }
+    }
+
+    private void publish(Long streamId, long userCount) {
+        StreamUserCountUpdateDto payloadDto = StreamUserCountUpdateDto.builder()
+                .streamId(String.valueOf(streamId))
+                .userCount(userCount)
+                .build();
+        redisPublisher.publish(String.valueOf(streamId), STREAM_UPDATE_TYPE, payloadDto);
+        published.increment();
+    }
+
+    private static final class StreamState {
+        private long lastPublishedAt;
+        private long latest;
+        private boolean dirty;
+    }
+}
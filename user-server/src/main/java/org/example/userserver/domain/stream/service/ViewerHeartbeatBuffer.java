@@ -0,0 +1,68 @@
+package org.example.userserver.domain.stream.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.repository.ViewerPresenceRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects viewer heartbeats in memory and writes them to Redis in one pipelined batch per flush.
+ * A viewer that sends several heartbeats between flushes costs a single write.
+ * Only registered when {@code app.viewer-count.source} is {@code presence}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.viewer-count", name = "source", havingValue = "presence")
+@RequiredArgsConstructor
+public class ViewerHeartbeatBuffer {
+
+    private final ViewerPresenceRepository viewerPresenceRepository;
+    // Each set is only touched inside compute/remove on its key, which ConcurrentHashMap serializes.
+    private final ConcurrentHashMap<Long, Set<Long>> pending = new ConcurrentHashMap<>();
+
+    public void record(Long streamId, Long userId) {
+        pending.compute(streamId, (id, userIds) -> {
+            Set<Long> viewers = userIds != null ? userIds : new HashSet<>();
+            viewers.add(userId);
+            return viewers;
+        });
+    }
+
+    /**
+     * Drops a buffered heartbeat so that it cannot re-add a viewer who has just left.
+     */
+    public void discard(Long streamId, Long userId) {
+        pending.computeIfPresent(streamId, (id, userIds) -> {
+            userIds.remove(userId);
+            return userIds.isEmpty() ? null : userIds;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.heartbeat-flush-interval-ms:1000}")
+    public void flush() {
+        Map<Long, Set<Long>> batch = new HashMap<>();
+        for (Long streamId : pending.keySet()) {
+            Set<Long> userIds = pending.remove(streamId);
+            if (userIds != null) {
+                batch.put(streamId, userIds);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            viewerPresenceRepository.heartbeat(batch);
+        } catch (Exception e) {
+            // Viewers are only swept after a full TTL, so the next heartbeat usually covers a failed flush.
+            log.warn("Failed to flush heartbeats for {} streams: {}", batch.size(), e.getMessage());
+        }
+    }
+}
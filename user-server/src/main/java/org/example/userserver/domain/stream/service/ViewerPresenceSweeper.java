@@ -0,0 +1,78 @@
+package org.example.userserver.domain.stream.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.repository.ViewerPresenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Trims viewers whose heartbeats have stopped, e.g. clients that crashed without calling leave.
+ * Each run removes at most {@code app.presence.sweep-batch-size} expired entries per stream, so a
+ * mass expiry is spread over several runs instead of blocking Redis. Count changes are published
+ * through the {@link ViewerCountDebouncer}. Only one instance sweeps per interval, and only when
+ * {@code app.viewer-count.source} is {@code presence}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.viewer-count", name = "source", havingValue = "presence")
+public class ViewerPresenceSweeper {
+
+    private final ViewerPresenceRepository viewerPresenceRepository;
+    private final ViewerCountDebouncer viewerCountDebouncer;
+    private final int batchSize;
+    private final Duration lockDuration;
+    private final Counter swept;
+    private final Timer sweepTimer;
+
+    public ViewerPresenceSweeper(
+            ViewerPresenceRepository viewerPresenceRepository,
+            ViewerCountDebouncer viewerCountDebouncer,
+            MeterRegistry meterRegistry,
+            @Value("${app.presence.sweep-batch-size:1000}") int batchSize,
+            @Value("${app.presence.sweep-interval-ms:5000}") long sweepIntervalMillis
+    ) {
+        this.viewerPresenceRepository = viewerPresenceRepository;
+        this.viewerCountDebouncer = viewerCountDebouncer;
+        this.batchSize = batchSize;
+        // Slightly shorter than the interval so the next run on any instance can take over.
+        this.lockDuration = Duration.ofMillis(Math.max(1, sweepIntervalMillis - 100));
+        this.swept = Counter.builder("stream.presence.swept")
+                .description("Expired viewer presence entries removed by the sweeper")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("stream.presence.sweep")
+                .description("Duration of one sweep over all streams with presence")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.sweep-interval-ms:5000}")
+    public void sweep() {
+        try {
+            if (!viewerPresenceRepository.tryAcquireSweepLock(lockDuration)) {
+                return;
+            }
+            sweepTimer.record(this::sweepAll);
+        } catch (Exception e) {
+            log.warn("Viewer presence sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void sweepAll() {
+        for (Long streamId : viewerPresenceRepository.findActiveStreamIds()) {
+            ViewerPresenceRepository.SweepResult result = viewerPresenceRepository.sweep(streamId, batchSize);
+            if (result.removed() > 0) {
+                swept.increment(result.removed());
+            }
+            // Compact-mode counts drift as time buckets age out, so they are republished on every sweep.
+            if (result.removed() > 0 || result.compact()) {
+                viewerCountDebouncer.update(streamId, result.liveCount());
+            }
+        }
+    }
+}
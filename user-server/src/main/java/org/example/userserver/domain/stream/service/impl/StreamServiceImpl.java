@@ -3,25 +3,37 @@ package org.example.userserver.domain.stream.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.example.userserver.domain.stream.dto.response.ReadStreamListResponseDto;
 import org.example.userserver.domain.stream.dto.response.StreamUserCountUpdateDto;
-import org.example.userserver.domain.stream.entity.Stream;
-import org.example.userserver.domain.stream.repository.StreamRepository;
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.example.userserver.domain.stream.dto.StreamCursor;
+import org.example.userserver.domain.stream.repository.ViewerPresenceRepository;
+import org.example.userserver.domain.stream.service.LobbyEventBroadcaster;
+import org.example.userserver.domain.stream.service.StreamCatalog;
+import org.example.userserver.domain.stream.service.StreamSearchIndex;
 import org.example.userserver.domain.stream.service.StreamService;
-import org.example.userserver.global.redis.RedisPublisher;
+import org.example.userserver.domain.stream.service.StreamVersions;
+import org.example.userserver.domain.stream.service.ViewerCountAggregator;
+import org.example.userserver.domain.stream.service.ViewerCountDebouncer;
+import org.example.userserver.domain.stream.service.ViewerHeartbeatBuffer;
+import org.example.userserver.global.redis.RedisNearCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.example.userserver.domain.stream.dto.response.ReadStreamResponseDto;
+import org.example.userserver.domain.stream.dto.response.ReadViewerCountListResponseDto;
 import org.example.userserver.domain.stream.exception.StreamException;
 import org.example.userserver.domain.stream.exception.StreamExceptionDetails;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service implementation for stream-related operations.
@@ -33,55 +45,203 @@ import java.util.concurrent.CopyOnWriteArrayList;
 @Transactional(readOnly = true)
 public class StreamServiceImpl implements StreamService {
 
-    private final StreamRepository streamRepository;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final RedisPublisher redisPublisher;
+    private final StreamCatalog streamCatalog;
+    private final StreamSearchIndex streamSearchIndex;
+    private final StreamVersions streamVersions;
+    private final RedisNearCache redisNearCache;
+    private final ViewerPresenceRepository viewerPresenceRepository;
+    private final ViewerCountDebouncer viewerCountDebouncer;
+    private final ViewerHeartbeatBuffer viewerHeartbeatBuffer;
+    private final ViewerCountAggregator viewerCountAggregator;
+    private final LobbyEventBroadcaster lobbyEventBroadcaster;
+    // When true, viewer counts come from chat-server subscription reports and enter/leave/heartbeat write nothing.
+    private final boolean countsFromSubscriptions;
 
-    // A thread-safe list to store active SSE emitters for broadcasting events.
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
-
-    private static final String USER_SET_PREFIX = "stream:users:";
     private static final String SUMMARY_PREFIX = "summary:";
+    // Upper bound for the bulk viewer-count endpoint, so one request cannot pipeline an unbounded batch.
+    private static final int MAX_VIEWER_COUNT_IDS = 200;
+    // Up to this many matches are ranked by pipelined count lookups; broader queries walk the popularity ranking.
+    private static final int MAX_COUNTED_MATCHES = 1000;
+    private static final int RANKING_SCAN_BATCH = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
 
     public StreamServiceImpl(
-        StreamRepository streamRepository,
-        RedisTemplate<String, String> redisTemplate,
-        RedisPublisher redisPublisher
+        StreamCatalog streamCatalog,
+        StreamSearchIndex streamSearchIndex,
+        StreamVersions streamVersions,
+        RedisNearCache redisNearCache,
+        ViewerPresenceRepository viewerPresenceRepository,
+        ViewerCountDebouncer viewerCountDebouncer,
+        ObjectProvider<ViewerHeartbeatBuffer> viewerHeartbeatBuffer,
+        ViewerCountAggregator viewerCountAggregator,
+        LobbyEventBroadcaster lobbyEventBroadcaster,
+        @Value("${app.viewer-count.source:subscriptions}") String viewerCountSource
     ) {
-        this.streamRepository = streamRepository;
-        this.redisTemplate = redisTemplate;
-        this.redisPublisher = redisPublisher;
+        this.streamCatalog = streamCatalog;
+        this.streamSearchIndex = streamSearchIndex;
+        this.streamVersions = streamVersions;
+        this.redisNearCache = redisNearCache;
+        this.viewerPresenceRepository = viewerPresenceRepository;
+        this.viewerCountDebouncer = viewerCountDebouncer;
+        // Only registered when app.viewer-count.source is presence, the only mode that uses it.
+        this.viewerHeartbeatBuffer = viewerHeartbeatBuffer.getIfAvailable();
+        this.viewerCountAggregator = viewerCountAggregator;
+        this.lobbyEventBroadcaster = lobbyEventBroadcaster;
+        this.countsFromSubscriptions = "subscriptions".equals(viewerCountSource);
     }
 
     /**
-     * Retrieves a paginated list of all available streams.
+     * Retrieves a paginated list of all available streams, newest first.
+     * With a cursor the page is read by keyset, whose cost does not depend on the page depth;
+     * without one, {@code pageable}'s page number is used (page 0 is the same as the first keyset page).
      *
-     * @param pageable Pagination information.
+     * @param cursor The {@code nextCursor} of the previous page, or null.
+     * @param pageable Pagination information; only the page size is used with a cursor.
      * @return A DTO containing the list of streams and pagination details.
      */
     @Override
-    public ReadStreamListResponseDto getAllStreams(Pageable pageable) {
-        Slice<Stream> streams = streamRepository.findAllWithHost(pageable);
-        List<ReadStreamListResponseDto.StreamDto> streamDtos = streams.getContent()
+    public ReadStreamListResponseDto getAllStreams(String cursor, Pageable pageable) {
+        // Stream and host data come from the catalog cache; only viewer counts are read per request.
+        StreamCatalog.CatalogPage streams = findPage(cursor, pageable);
+        // Fetch the viewer counts of the whole page in one pipelined round trip.
+        Map<Long, Long> viewerCounts = getStreamViewerCounts(
+            streams.streams().stream().map(StreamCatalogEntryDto::id).toList()
+        );
+        List<ReadStreamListResponseDto.StreamDto> streamDtos = streams.streams()
             .stream()
-            .map(stream -> {
-                long viewerCount = getStreamViewerCount(stream.getId());
-                return ReadStreamListResponseDto.StreamDto.from(stream, viewerCount);
-            }).toList();
+            .map(stream -> ReadStreamListResponseDto.StreamDto.from(stream, viewerCounts.getOrDefault(stream.id(), 0L)))
+            .toList();
 
         return ReadStreamListResponseDto.builder()
             .streams(streamDtos)
             .hasNext(streams.hasNext())
-            .numberOfElements(streams.getNumberOfElements())
-            .pageNumber(streams.getNumber())
-            .pageSize(streams.getSize())
+            .numberOfElements(streamDtos.size())
+            .pageNumber(streams.pageNumber())
+            .pageSize(streams.pageSize())
+            .nextCursor(nextCursor(streams))
+            .build();
+    }
+
+    /**
+     * Retrieves a page of streams ordered by current viewer count, most watched first.
+     * The page is one ZREVRANGE on the popularity ranking (O(log N + K)), hydrated from the catalog in one batch;
+     * the ranking scores are the viewer counts, so no per-stream count lookup is needed.
+     *
+     * @param pageable Pagination information; the page number is a rank offset.
+     * @return A DTO containing the list of streams and pagination details.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReadStreamListResponseDto getPopularStreams(Pageable pageable) {
+        int pageSize = pageable.getPageSize();
+        // One extra entry tells whether there is a next page.
+        Map<Long, Long> ranked = viewerPresenceRepository.findTopStreams(pageable.getOffset(), pageSize + 1);
+        boolean hasNext = ranked.size() > pageSize;
+        List<Long> streamIds = ranked.keySet().stream().limit(pageSize).toList();
+        Map<Long, StreamCatalogEntryDto> streams = streamCatalog.findStreams(streamIds);
+
+        List<ReadStreamListResponseDto.StreamDto> streamDtos = streamIds.stream()
+            .filter(streams::containsKey)
+            .map(streamId -> ReadStreamListResponseDto.StreamDto.from(streams.get(streamId), ranked.get(streamId)))
+            .toList();
+
+        return ReadStreamListResponseDto.builder()
+            .streams(streamDtos)
+            .hasNext(hasNext)
+            .numberOfElements(streamDtos.size())
+            .pageNumber(pageable.getPageNumber())
+            .pageSize(pageSize)
+            .build();
+    }
+
+    /**
+     * Searches stream titles and host names for a substring, using the in-memory bigram index
+     * instead of a {@code LIKE '%q%'} scan. Every match is ranked by current viewer count, newest first
+     * among streams without viewers.
+     * <ul>
+     *     <li>Up to {@value #MAX_COUNTED_MATCHES} matches, their counts are read in one pipelined call.</li>
+     *     <li>Beyond that, the popularity ranking is read most watched first, {@value #RANKING_SCAN_BATCH} at a time,
+     *     keeping the streams that match. This costs at most one pass over the streams that have viewers,
+     *     and stops as soon as the page is full.</li>
+     * </ul>
+     *
+     * @param query The text to look for, at least {@value StreamSearchIndex#MIN_QUERY_LENGTH} characters.
+     * @param limit The maximum number of streams to return, capped at {@value #MAX_SEARCH_RESULTS}.
+     * @return A DTO containing the matching streams, most watched first.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReadStreamListResponseDto searchStreams(String query, int limit) {
+        if (query == null || query.strip().length() < StreamSearchIndex.MIN_QUERY_LENGTH) {
+            throw new StreamException(StreamExceptionDetails.SEARCH_QUERY_TOO_SHORT);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+        Set<Long> matches = streamSearchIndex.search(query);
+        // One extra stream tells whether there is a next page.
+        Map<Long, Long> ranked = matches.size() <= MAX_COUNTED_MATCHES
+            ? rankByCount(matches, pageSize + 1)
+            : rankByRanking(matches, pageSize + 1);
+        List<Long> streamIds = ranked.keySet().stream().limit(pageSize).toList();
+        Map<Long, StreamCatalogEntryDto> streams = streamCatalog.findStreams(streamIds);
+
+        List<ReadStreamListResponseDto.StreamDto> streamDtos = streamIds.stream()
+            .filter(streams::containsKey)
+            .map(streamId -> ReadStreamListResponseDto.StreamDto.from(streams.get(streamId), ranked.get(streamId)))
+            .toList();
+
+        return ReadStreamListResponseDto.builder()
+            .streams(streamDtos)
+            .hasNext(ranked.size() > pageSize)
+            .numberOfElements(streamDtos.size())
+            .pageNumber(0)
+            .pageSize(pageSize)
             .build();
     }
 
+    /**
+     * Computes the ETag of a stream list page from the cached catalog page and the announced viewer counts,
+     * without touching MySQL or Redis while the page is cached.
+     *
+     * @param cursor The {@code nextCursor} of the previous page, or null.
+     * @param pageable Pagination information.
+     * @return A weak ETag that changes whenever the page's streams, hosts or viewer counts change.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getStreamListETag(String cursor, Pageable pageable) {
+        StreamCatalog.CatalogPage page = findPage(cursor, pageable);
+        return streamVersions.pageTag(page, nextCursor(page));
+    }
+
+    /**
+     * @param streamId The ID of the stream.
+     * @return A weak ETag that changes whenever the stream, its host, summary or viewer count changes,
+     * or null if the stream does not exist.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getStreamETag(Long streamId) {
+        return streamCatalog.findStream(streamId)
+            .map(stream -> streamVersions.streamTag(stream, redisNearCache.get(SUMMARY_PREFIX + streamId)))
+            .orElse(null);
+    }
+
+    private static String nextCursor(StreamCatalog.CatalogPage page) {
+        return page.hasNext() && !page.streams().isEmpty()
+            ? StreamCursor.of(page.streams().get(page.streams().size() - 1)).encode()
+            : null;
+    }
+
+    private StreamCatalog.CatalogPage findPage(String cursor, Pageable pageable) {
+        return cursor != null
+            ? streamCatalog.findPageAfter(StreamCursor.decode(cursor), pageable.getPageSize())
+            : streamCatalog.findPage(pageable);
+    }
+
     /**
      * Handles a user entering a stream room.
-     * It adds the user's ID to a Redis Set for the given stream
-     * and publishes a message to a Redis channel to notify of the update.
+     * It adds the user to the stream's viewer presence in Redis with a single script call
+     * and hands the new count to the debouncer, which publishes it to a Redis channel.
      *
      * @param userId The ID of the user entering the stream.
      * @param streamId The ID of the stream being entered.
@@ -89,67 +249,77 @@ public class StreamServiceImpl implements StreamService {
     @Override
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void enterStream(Long userId, Long streamId) {
-        String key = USER_SET_PREFIX + streamId;
-        redisTemplate.opsForSet().add(key, String.valueOf(userId));
-        Long userCount = redisTemplate.opsForSet().size(key);
-        if (userCount == null) {
-            userCount = 0L;
+        if (countsFromSubscriptions) {
+            return;
         }
-        publishStreamUserCountUpdate(streamId, userCount);
+        long userCount = viewerPresenceRepository.enter(streamId, userId);
+        viewerCountDebouncer.update(streamId, userCount);
     }
 
     @Override
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void leaveStream(Long userId, Long streamId) {
-        String key = USER_SET_PREFIX + streamId;
-        redisTemplate.opsForSet().remove(key, String.valueOf(userId));
-        Long userCount = redisTemplate.opsForSet().size(key);
-        if (userCount == null) {
-            userCount = 0L;
+        if (countsFromSubscriptions) {
+            return;
         }
-        publishStreamUserCountUpdate(streamId, userCount);
+        viewerHeartbeatBuffer.discard(streamId, userId);
+        long userCount = viewerPresenceRepository.leave(streamId, userId);
+        viewerCountDebouncer.update(streamId, userCount);
     }
 
     /**
-     * Creates and registers a new SSE emitter for a client to subscribe to stream updates.
-     * The emitter is stored in a central list to receive broadcasted events.
+     * Records that a viewer is still watching a stream.
+     * Heartbeats are buffered and written in batches; a viewer whose heartbeats stop is
+     * removed by the presence sweeper after the presence TTL.
      *
-     * @return The SseEmitter instance for the client.
+     * @param userId The ID of the viewer.
+     * @param streamId The ID of the stream being watched.
+     * @return false if counts come from chat subscriptions and heartbeats are not needed.
      */
     @Override
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public SseEmitter subscribe() {
-        // Create an emitter with a very long timeout.
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-
-        emitter.onCompletion(() -> {
-            log.info("SSE connection completed. Removing emitter.");
-            this.emitters.remove(emitter);
-        });
-
-        emitter.onTimeout(() -> {
-            log.warn("SSE connection timed out. Removing emitter.");
-            emitter.complete();
-            this.emitters.remove(emitter);
-        });
-
-        this.emitters.add(emitter);
+    public boolean heartbeat(Long userId, Long streamId) {
+        if (countsFromSubscriptions) {
+            return false;
+        }
+        viewerHeartbeatBuffer.record(streamId, userId);
+        return true;
+    }
 
+    /**
+     * Registers a new SSE client for stream updates with the lobby broadcaster.
+     *
+     * @param streamIds The streams the client displays, at most {@value #MAX_VIEWER_COUNT_IDS};
+     *                  null or empty to receive updates for every stream.
+     * @return The SseEmitter instance for the client.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SseEmitter subscribe(List<Long> streamIds) {
+        validateStreamIds(streamIds);
+        return lobbyEventBroadcaster.register(streamIds);
+    }
 
-        try {
-            // Send an initial event to confirm the connection.
-            emitter.send(SseEmitter.event().name("connect").data("SSE connection established."));
-        } catch (IOException e) {
-            // If sending fails, remove the emitter immediately.
-            log.warn("Client disconnected right after subscribing. Completing emitter.", e);
-            emitter.complete();
+    /**
+     * Replaces the streams an SSE client receives updates for, e.g. when the client loads another page.
+     *
+     * @param clientId The client ID sent in the subscription's {@code connect} event.
+     * @param streamIds The streams the client displays, at most {@value #MAX_VIEWER_COUNT_IDS};
+     *                  null or empty to receive updates for every stream.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void updateSubscription(String clientId, List<Long> streamIds) {
+        validateStreamIds(streamIds);
+        // The subscription lives on the instance holding the connection; elsewhere the client has to resubscribe.
+        if (!lobbyEventBroadcaster.updateInterests(clientId, streamIds)) {
+            throw new StreamException(StreamExceptionDetails.SUBSCRIPTION_NOT_FOUND);
         }
-
-        return emitter;
     }
 
     /**
-     * Notifies all subscribed clients of a user count update for a specific stream.
+     * Hands a user count update for a specific stream to the lobby broadcaster, which conflates
+     * updates and sends them to all subscribed clients on its next tick.
      * This method is called by the Redis subscriber when an update message is received.
      *
      * @param dto The DTO containing the stream ID and the new user count.
@@ -158,46 +328,116 @@ public class StreamServiceImpl implements StreamService {
     // this doesn't need db transaction. so exclude it
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void notifyUserCountUpdate(StreamUserCountUpdateDto dto) {
-        // Iterate over a copy of the emitters list to avoid ConcurrentModificationException.
-        List<SseEmitter> deadEmitters = new ArrayList<>();
-        this.emitters.forEach(emitter -> {
-            try {
-                // Send the update event to each client.
-                emitter.send(SseEmitter.event().name("userCountUpdate").data(dto));
-            } catch (IOException e) {
-                log.info("Client disconnected. Emitter will be removed.");
-                // If an error occurs (e.g., client disconnected), mark the emitter for removal.
-                deadEmitters.add(emitter);
-            }
-        });
-
-        // Remove all dead emitters from the main list.
-        this.emitters.removeAll(deadEmitters);
+        try {
+            streamVersions.viewerCountChanged(Long.parseLong(dto.streamId()), dto.userCount());
+        } catch (NumberFormatException ignored) {
+            // The broadcaster logs and drops it as well.
+        }
+        lobbyEventBroadcaster.publish(dto);
     }
 
     @Override
     public long getStreamViewerCount(Long streamId) {
-        String key = USER_SET_PREFIX + streamId;
-        Long userCount = redisTemplate.opsForSet().size(key);
-        return userCount != null ? userCount : 0L;
+        return getStreamViewerCounts(List.of(streamId)).getOrDefault(streamId, 0L);
+    }
+
+    /**
+     * Retrieves the viewer counts of several streams with a single pipelined round trip to Redis.
+     *
+     * @param streamIds The stream IDs to look up.
+     * @return The viewer count of each requested stream, in request order.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Long, Long> getStreamViewerCounts(Collection<Long> streamIds) {
+        if (countsFromSubscriptions) {
+            return viewerCountAggregator.countAll(new LinkedHashSet<>(streamIds));
+        }
+        return viewerPresenceRepository.countAll(streamIds);
+    }
+
+    /**
+     * Retrieves the current viewer counts of the given streams, so clients can refresh counts
+     * without reloading the stream list.
+     *
+     * @param streamIds The stream IDs to look up, at most {@value #MAX_VIEWER_COUNT_IDS}.
+     * @return A DTO containing one count per distinct stream ID.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReadViewerCountListResponseDto readViewerCounts(List<Long> streamIds) {
+        validateStreamIds(streamIds);
+        List<StreamUserCountUpdateDto> viewerCounts = getStreamViewerCounts(streamIds).entrySet()
+                .stream()
+                .map(entry -> StreamUserCountUpdateDto.builder()
+                        .streamId(String.valueOf(entry.getKey()))
+                        .userCount(entry.getValue())
+                        .build())
+                .toList();
+        return ReadViewerCountListResponseDto.builder()
+                .viewerCounts(viewerCounts)
+                .build();
     }
 
     @Override
     public ReadStreamResponseDto readStreamInfo(Long streamId) {
-        Stream stream = streamRepository.findById(streamId)
+        StreamCatalogEntryDto stream = streamCatalog.findStream(streamId)
                 .orElseThrow(() -> new StreamException(StreamExceptionDetails.STREAM_NOT_FOUND));
 
         long viewerCount = getStreamViewerCount(streamId);
-        String summary = redisTemplate.opsForValue().get(SUMMARY_PREFIX + streamId);
+        // Summaries change only when chat-server stores a new one, so they are read through the near-cache.
+        String summary = redisNearCache.get(SUMMARY_PREFIX + streamId);
 
         return ReadStreamResponseDto.from(stream, viewerCount, summary);
     }
 
-    private void publishStreamUserCountUpdate(Long streamId, Long userCount) {
-        StreamUserCountUpdateDto payloadDto = StreamUserCountUpdateDto.builder()
-                .streamId(String.valueOf(streamId))
-                .userCount(userCount)
-                .build();
-        redisPublisher.publish(String.valueOf(streamId), "stream-update", payloadDto);
+    /**
+     * @return Up to {@code limit} of the matches with their viewer counts, most watched first, then newest first.
+     */
+    private Map<Long, Long> rankByCount(Set<Long> matches, int limit) {
+        Map<Long, Long> viewerCounts = getStreamViewerCounts(matches);
+        Map<Long, Long> ranked = new LinkedHashMap<>();
+        matches.stream()
+            .sorted(Comparator.comparing((Long streamId) -> viewerCounts.getOrDefault(streamId, 0L))
+                .thenComparing(Comparator.naturalOrder())
+                .reversed())
+            .limit(limit)
+            .forEach(streamId -> ranked.put(streamId, viewerCounts.getOrDefault(streamId, 0L)));
+        return ranked;
+    }
+
+    /**
+     * Same order as {@link #rankByCount}, for match sets too large to count one by one: the popularity ranking
+     * holds every watched stream in count order, so its matching prefix is the head of the result.
+     * Streams missing from the ranking have no viewers and fill the rest, newest first.
+     */
+    private Map<Long, Long> rankByRanking(Set<Long> matches, int limit) {
+        Map<Long, Long> ranked = new LinkedHashMap<>();
+        for (long offset = 0; ranked.size() < limit; offset += RANKING_SCAN_BATCH) {
+            Map<Long, Long> batch = viewerPresenceRepository.findTopStreams(offset, RANKING_SCAN_BATCH);
+            for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+                if (ranked.size() < limit && matches.contains(entry.getKey())) {
+                    ranked.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (batch.size() < RANKING_SCAN_BATCH) {
+                break;
+            }
+        }
+        if (ranked.size() < limit) {
+            matches.stream()
+                .filter(streamId -> !ranked.containsKey(streamId))
+                .sorted(Comparator.reverseOrder())
+                .limit(limit - ranked.size())
+                .toList()
+                .forEach(streamId -> ranked.put(streamId, 0L));
+        }
+        return ranked;
+    }
+
+    private void validateStreamIds(List<Long> streamIds) {
+        if (streamIds != null && streamIds.size() > MAX_VIEWER_COUNT_IDS) {
+            throw new StreamException(StreamExceptionDetails.TOO_MANY_STREAM_IDS);
+        }
     }
-}
\ No newline at end of file
+}
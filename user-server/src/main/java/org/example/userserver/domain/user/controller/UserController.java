@@ -9,7 +9,9 @@ import lombok.RequiredArgsConstructor;
 import org.example.userserver.domain.user.dto.request.TokenReissueRequestDto;
 import org.example.userserver.domain.user.dto.response.TokenReissueResponseDto;
 import org.example.userserver.domain.user.service.UserService;
+import org.example.userserver.global.jwt.JwtPrincipal;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
@@ -50,4 +52,18 @@ public class UserController {
         TokenReissueResponseDto responseDto = userService.reissueTokens(requestDto);
         return ResponseEntity.ok(responseDto);
     }
+
+    @Operation(
+            summary = "Log out",
+            description = "Revokes the current access token and deletes the stored refresh token."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully logged out"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        userService.logout((JwtPrincipal) authentication.getDetails());
+        return ResponseEntity.ok().build();
+    }
 }
\ No newline at end of file
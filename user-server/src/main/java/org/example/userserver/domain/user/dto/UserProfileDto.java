@@ -0,0 +1,19 @@
+package org.example.userserver.domain.user.dto;
+
+import org.example.userserver.domain.user.entity.User;
+
+/**
+ * Public profile of a user, stored in Redis as {@code profile:{userId}} for chat-server to resolve chat senders.
+ * Field names must match chat-server's {@code SenderProfileDto}.
+ */
+public record UserProfileDto(
+        String id,
+        String name,
+        String profileImageUrl
+) {
+    public static final String KEY_PREFIX = "profile:";
+
+    public static UserProfileDto from(User user) {
+        return new UserProfileDto(String.valueOf(user.getId()), user.getName(), user.getProfileImage());
+    }
+}
@@ -4,11 +4,13 @@ import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.example.userserver.domain.stream.service.StreamCatalogInvalidator;
 import org.example.userserver.global.entity.BaseEntity;
 
 @Getter
 @NoArgsConstructor
 @Entity
+@EntityListeners(StreamCatalogInvalidator.class)
 @Table(name = "users")
 public class User extends BaseEntity {
 
@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.userserver.domain.user.entity.User;
+import org.example.userserver.domain.user.service.UserProfileStore;
 import org.example.userserver.domain.user.service.UserService;
 import org.example.userserver.global.jwt.JwtUtil;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -25,6 +26,7 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
     private final JwtUtil jwtUtil;
     private final UserService userService;
     private final RedisTemplate<String, String> redisTemplate;
+    private final UserProfileStore userProfileStore;
 
     /**
      * This method is triggered after a user successfully authenticates via an OAuth2 provider (e.g., Google).
@@ -60,6 +62,9 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
                 TimeUnit.MILLISECONDS
         );
 
+        // Written on every login, so name and picture changes from Google are picked up.
+        userProfileStore.store(user);
+
         log.info("Successfully logged in with Google. User email: {}", user.getEmail());
 
         response.setContentType("text/html;charset=UTF-8");
@@ -78,4 +83,4 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
                     "</body></html>"
         );
     }
-}
\ No newline at end of file
+}
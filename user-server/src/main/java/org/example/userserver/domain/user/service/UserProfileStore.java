@@ -0,0 +1,69 @@
+package org.example.userserver.domain.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.domain.stream.service.StreamCatalog;
+import org.example.userserver.domain.user.dto.UserProfileDto;
+import org.example.userserver.domain.user.entity.User;
+import org.example.userserver.domain.user.repository.UserRepository;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes users' public profiles to {@code profile:{userId}}, where chat-server resolves chat senders.
+ * Profiles are written on login, and on request when chat-server misses one: it publishes the user ID on
+ * {@value #BACKFILL_CHANNEL} (e.g. for users who last logged in before profiles were stored), and the profile
+ * is filled from the user record. Every write is announced on {@link StreamCatalog#CHANNEL}, so chat-server
+ * instances drop the old or placeholder profile they cached.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserProfileStore implements MessageListener {
+
+    // Must match chat-server's SenderProfileCache.BACKFILL_CHANNEL.
+    public static final String BACKFILL_CHANNEL = "profile:backfill";
+
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void store(User user) {
+        try {
+            redisTemplate.opsForValue().set(
+                    UserProfileDto.KEY_PREFIX + user.getId(),
+                    objectMapper.writeValueAsString(UserProfileDto.from(user))
+            );
+            redisTemplate.convertAndSend(StreamCatalog.CHANNEL, StreamCatalog.USER_PREFIX + user.getId());
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize the profile of user {}", user.getId(), e);
+        } catch (Exception e) {
+            log.warn("Failed to store the profile of user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Handles a backfill request. Every instance receives it; the write is idempotent, and a request only
+     * comes once per user per chat-server cache period, so the duplicate reads are not worth coordinating.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        long userId;
+        try {
+            userId = Long.parseLong(body);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring profile backfill request for {}", body);
+            return;
+        }
+        userRepository.findById(userId).ifPresentOrElse(
+                this::store,
+                () -> log.debug("No user {} to backfill the profile of", userId));
+    }
+}
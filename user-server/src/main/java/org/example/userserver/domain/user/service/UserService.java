@@ -25,4 +25,11 @@ public interface UserService {
      * @return A DTO containing the new access and refresh tokens.
      */
     TokenReissueResponseDto reissueTokens(org.example.userserver.domain.user.dto.request.TokenReissueRequestDto requestDto);
+
+    /**
+     * Logs the user out by revoking the presented access token and deleting the stored refresh token.
+     *
+     * @param principal The verified principal of the access token used for the request.
+     */
+    void logout(org.example.userserver.global.jwt.JwtPrincipal principal);
 }
\ No newline at end of file
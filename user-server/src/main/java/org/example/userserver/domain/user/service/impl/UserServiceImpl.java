@@ -9,7 +9,9 @@ import org.example.userserver.domain.user.repository.UserRepository;
 import org.example.userserver.domain.user.service.UserService;
 import org.example.userserver.domain.user.exception.UserException;
 import org.example.userserver.domain.user.exception.UserExceptionDetails;
+import org.example.userserver.global.jwt.JwtPrincipal;
 import org.example.userserver.global.jwt.JwtUtil;
+import org.example.userserver.global.jwt.TokenRevocationList;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +28,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final RedisTemplate<String, String> redisTemplate;
+    private final TokenRevocationList tokenRevocationList;
 
     private static final String REFRESH_TOKEN_PREFIX = "RT:";
 
@@ -101,4 +104,10 @@ public class UserServiceImpl implements UserService {
                 .refreshToken(newRefreshToken)
                 .build();
     }
+
+    @Override
+    public void logout(JwtPrincipal principal) {
+        redisTemplate.delete(REFRESH_TOKEN_PREFIX + principal.userId());
+        tokenRevocationList.revoke(principal.tokenId(), principal.expiresAtMillis());
+    }
 }
@@ -0,0 +1,91 @@
+package org.example.userserver.global.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.userserver.global.datasource.ReadWriteRoutingDataSource;
+import org.example.userserver.global.datasource.ReplicaLagMonitor;
+import org.example.userserver.global.datasource.ReplicaState;
+import org.example.userserver.global.datasource.RoutingDataSourceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, enabled with {@code app.datasource.routing.enabled}.
+ * Read-only transactions go to the replicas in {@code app.datasource.routing.replicas}, everything else
+ * to the primary from {@code spring.datasource.*}. Each route has its own Hikari pool, named
+ * {@code primary} and {@code replica-N}, so {@code hikaricp.*} metrics are reported per route.
+ * When disabled, Spring Boot's single auto-configured datasource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    private final RoutingDataSourceProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final MeterRegistry meterRegistry;
+
+    public DataSourceConfig(
+            RoutingDataSourceProperties properties,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    private List<ReplicaState> createReplicas() {
+        List<ReplicaState> replicas = new ArrayList<>();
+        List<RoutingDataSourceProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            RoutingDataSourceProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword());
+            dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaState(dataSource.getPoolName(), dataSource));
+        }
+        return replicas;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor() {
+        return new ReplicaLagMonitor(createReplicas(), properties, meterRegistry);
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaLagMonitor.replicas(), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        // Defer taking a connection until the statement runs, when the transaction's read-only flag is set.
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -1,11 +1,18 @@
 package org.example.userserver.global.config;
 
+import org.example.userserver.domain.stream.service.StreamCatalog;
+import org.example.userserver.domain.stream.service.StreamSearchIndex;
+import org.example.userserver.domain.stream.service.ViewerCountAggregator;
+import org.example.userserver.domain.user.service.UserProfileStore;
+import org.example.userserver.global.jwt.TokenRevocationList;
+import org.example.userserver.global.redis.RedisNearCache;
 import org.example.userserver.global.redis.RedisSubscriber;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
@@ -22,12 +29,30 @@ public class RedisConfig {
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(
             RedisConnectionFactory connectionFactory,
-            MessageListenerAdapter listenerAdapter
+            MessageListenerAdapter listenerAdapter,
+            TokenRevocationList tokenRevocationList,
+            ViewerCountAggregator viewerCountAggregator,
+            RedisNearCache redisNearCache,
+            StreamCatalog streamCatalog,
+            StreamSearchIndex streamSearchIndex,
+            UserProfileStore userProfileStore
     ) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
         // Subscribe to all channels matching the 'broadcast:*' pattern
         container.addMessageListener(listenerAdapter, new PatternTopic("broadcast:*"));
+        // Access-token revocations, mirrored locally by TokenRevocationList
+        container.addMessageListener(tokenRevocationList, new ChannelTopic(TokenRevocationList.CHANNEL));
+        // Per-instance subscriber counts reported by chat-server
+        container.addMessageListener(viewerCountAggregator, new ChannelTopic(ViewerCountAggregator.CHANNEL));
+        // Keys changed by writers, dropped from the local near-cache
+        container.addMessageListener(redisNearCache, new ChannelTopic(RedisNearCache.INVALIDATION_CHANNEL));
+        // Stream and host changes, evicted from the local stream catalog
+        container.addMessageListener(streamCatalog, new ChannelTopic(StreamCatalog.CHANNEL));
+        // The same changes, re-indexed by the stream search index
+        container.addMessageListener(streamSearchIndex, new ChannelTopic(StreamCatalog.CHANNEL));
+        // Profiles chat-server could not find, filled from the user records
+        container.addMessageListener(userProfileStore, new ChannelTopic(UserProfileStore.BACKFILL_CHANNEL));
         return container;
     }
 
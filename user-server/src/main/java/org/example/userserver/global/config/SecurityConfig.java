@@ -54,7 +54,7 @@ public class SecurityConfig {
                         // User-specific public API endpoints
                         .requestMatchers("/api/v1/users/login/google", "/api/v1/users/reissue").permitAll()
                         // home screen api
-                        .requestMatchers("/api/v1/streams", "/api/v1/streams/subscribe").permitAll()
+                        .requestMatchers("/api/v1/streams", "/api/v1/streams/subscribe", "/api/v1/streams/subscribe/*", "/api/v1/streams/viewer-counts", "/api/v1/streams/search").permitAll()
                         .anyRequest().authenticated()); // All other requests require authentication
 
         http
@@ -0,0 +1,19 @@
+package org.example.userserver.global.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class SseConfig {
+
+    // Writes SSE frames to clients, so a slow client never blocks the Redis listener or the scheduler.
+    // Servlet writes block, so each drain runs on its own virtual thread: a stalled client parks only its
+    // own thread instead of holding one of a few pooled threads that every other client is waiting on.
+    @Bean
+    public SimpleAsyncTaskExecutor sseSendExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-send-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -1,9 +1,10 @@
 package org.example.userserver.global.dataloader;
 
 import lombok.RequiredArgsConstructor;
+import org.example.userserver.domain.stream.repository.ViewerPresenceRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
@@ -15,8 +16,9 @@ import java.util.HashSet;
 @RequiredArgsConstructor
 public class RedisDummyDataLoader implements ApplicationRunner {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private static final String USER_SET_PREFIX = "stream:users:";
+    private final ViewerPresenceRepository viewerPresenceRepository;
+    @Value("${app.viewer-count.source:subscriptions}")
+    private String viewerCountSource;
     private static final int MIN_STREAM_ID = 1;
     private static final int MAX_STREAM_ID = 6;
     private static final int MIN_USER_ID = 7;
@@ -24,12 +26,15 @@ public class RedisDummyDataLoader implements ApplicationRunner {
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
+        // Subscription counts come from chat-server, so presence entries would never be read or swept.
+        if ("subscriptions".equals(viewerCountSource)) {
+            return;
+        }
         System.out.println("Loading dummy Redis data with even distribution...");
 
         // Clear existing dummy data to ensure clean state for redistribution
         for (int streamId = MIN_STREAM_ID; streamId <= MAX_STREAM_ID; streamId++) {
-            String key = USER_SET_PREFIX + streamId;
-            redisTemplate.delete(key);
+            viewerPresenceRepository.clear((long) streamId);
         }
 
         Map<Integer, Set<Integer>> streamUserMap = new HashMap<>();
@@ -39,8 +44,7 @@ public class RedisDummyDataLoader implements ApplicationRunner {
 
         for (int userId = MIN_USER_ID; userId <= MAX_USER_ID; userId++) {
             int streamId = (userId - MIN_USER_ID) % (MAX_STREAM_ID - MIN_STREAM_ID + 1) + MIN_STREAM_ID;
-            String key = USER_SET_PREFIX + streamId;
-            redisTemplate.opsForSet().add(key, String.valueOf(userId));
+            viewerPresenceRepository.enter((long) streamId, (long) userId);
             streamUserMap.get(streamId).add(userId);
         }
 
@@ -0,0 +1,91 @@
+package org.example.userserver.global.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy replica, round robin, and everything else to the primary.
+ * A replica is healthy while {@link ReplicaLagMonitor} last saw it reachable and within the lag tolerance;
+ * with no healthy replica, reads fall back to the primary.
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy}, so the connection is only taken once the
+ * transaction's read-only flag is known.
+ * Reads that must not see replica lag, such as cache reloads after an invalidation, run inside
+ * {@link #onPrimary(Supplier)}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final List<ReplicaState> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaState> replicas, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name(), replica.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryRoutes = routeCounter(meterRegistry, "primary");
+        this.replicaRoutes = routeCounter(meterRegistry, "replica");
+        this.fallbackRoutes = routeCounter(meterRegistry, "fallback");
+    }
+
+    /**
+     * Runs reads whose connections are taken from the primary even inside a read-only transaction.
+     * Only connections first used inside the call are affected: a transaction that already took a replica
+     * connection keeps it. A no-op when routing is disabled.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (Boolean.TRUE.equals(PRIMARY_PINNED.get())) {
+            return reads.get();
+        }
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_PINNED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || Boolean.TRUE.equals(PRIMARY_PINNED.get())) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaState replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                replicaRoutes.increment();
+                return replica.name();
+            }
+        }
+        fallbackRoutes.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out per route; fallback means a read went to the primary")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.userserver.global.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Owns the replica pools and periodically checks every replica's reachability and replication lag and marks it healthy or not.
+ * A replica that cannot be reached, has stopped replicating (lag is NULL) or is behind by more than
+ * {@code max-lag-seconds} is taken out of rotation until a later check passes.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final List<ReplicaState> replicas;
+    private final RoutingDataSourceProperties properties;
+
+    public ReplicaLagMonitor(List<ReplicaState> replicas, RoutingDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.properties = properties;
+        replicas.forEach(replica -> Gauge.builder("datasource.replica.lag", replica, ReplicaState::lagSeconds)
+                .description("Replication lag in seconds at the last check; -1 if unknown")
+                .tag("replica", replica.name())
+                .baseUnit("seconds")
+                .register(meterRegistry));
+    }
+
+    public List<ReplicaState> replicas() {
+        return replicas;
+    }
+
+    // Replicas start out of rotation, so the first check runs right away.
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:5000}")
+    public void check() {
+        replicas.forEach(this::check);
+    }
+
+    /**
+     * Closes the replica pools; called by Spring on shutdown.
+     */
+    public void close() {
+        for (ReplicaState replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}: {}", replica.name(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void check(ReplicaState replica) {
+        try (Connection connection = replica.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            String lagQuery = properties.getLagQuery();
+            if (lagQuery == null || lagQuery.isBlank()) {
+                replica.update(connection.isValid(1), -1);
+                return;
+            }
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    log.warn("Replica {} reports no replication status; routing reads to the primary", replica.name());
+                    replica.update(false, -1);
+                    return;
+                }
+                Long lag = readLag(resultSet);
+                boolean healthy = lag != null && lag <= properties.getMaxLagSeconds();
+                if (replica.isHealthy() && !healthy) {
+                    log.warn("Replica {} is out of rotation (lag: {} s)", replica.name(), lag);
+                }
+                replica.update(healthy, lag != null ? lag : -1);
+            }
+        } catch (Exception e) {
+            if (replica.isHealthy()) {
+                log.warn("Replica {} is unreachable; routing its reads to the primary: {}", replica.name(), e.getMessage());
+            }
+            replica.update(false, -1);
+        }
+    }
+
+    private static Long readLag(ResultSet resultSet) throws Exception {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMNS.contains(metaData.getColumnLabel(i))) {
+                long lag = resultSet.getLong(i);
+                return resultSet.wasNull() ? null : lag;
+            }
+        }
+        return null;
+    }
+}
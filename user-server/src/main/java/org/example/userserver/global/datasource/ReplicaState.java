@@ -0,0 +1,41 @@
+package org.example.userserver.global.datasource;
+
+import javax.sql.DataSource;
+
+/**
+ * One read replica and its last observed health.
+ */
+public class ReplicaState {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    // Seconds behind the primary at the last check; -1 if unknown.
+    private volatile long lagSeconds = -1;
+
+    public ReplicaState(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long lagSeconds() {
+        return lagSeconds;
+    }
+
+    void update(boolean healthy, long lagSeconds) {
+        this.healthy = healthy;
+        this.lagSeconds = lagSeconds;
+    }
+}
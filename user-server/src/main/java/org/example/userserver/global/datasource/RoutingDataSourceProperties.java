@@ -0,0 +1,37 @@
+package org.example.userserver.global.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions ({@code app.datasource.routing.*}).
+ * The primary is still configured through {@code spring.datasource.*}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false;
+    // A replica further behind than this is skipped until it catches up.
+    private long maxLagSeconds = 5;
+    private long lagCheckIntervalMs = 5000;
+    // Must return a Seconds_Behind_Source (or Seconds_Behind_Master) column; empty disables the lag check.
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
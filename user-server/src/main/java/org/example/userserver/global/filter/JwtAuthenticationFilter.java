@@ -8,7 +8,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.userserver.global.jwt.JwtPrincipal;
 import org.example.userserver.global.jwt.JwtUtil;
+import org.example.userserver.global.jwt.TokenRevocationList;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +29,7 @@ import java.util.Map;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -35,16 +38,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (token != null) {
             try {
-                // The getClaimsFromToken method will throw a JwtException if the token is invalid.
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                String role = jwtUtil.getRoleFromToken(token);
+                // resolvePrincipal parses the token once (or not at all on a cache hit) and throws a JwtException if it is invalid.
+                JwtPrincipal principal = jwtUtil.resolvePrincipal(token);
+                // Checked against the local mirror only, so revocation adds no Redis round trip.
+                if (tokenRevocationList.isRevoked(principal.tokenId())) {
+                    throw new JwtException("Revoked JWT token");
+                }
 
                 // Create an Authentication object and set it in the SecurityContext
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userId, // Use userId as the principal
+                        principal.userId(), // Use userId as the principal
                         null,  // Credentials are not needed for token-based auth
-                        Collections.singleton(new SimpleGrantedAuthority(role))
+                        Collections.singleton(new SimpleGrantedAuthority(principal.role()))
                 );
+                // Keep the token ID and expiry available for logout.
+                authentication.setDetails(principal);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
             } catch (JwtException e) {
@@ -0,0 +1,17 @@
+package org.example.userserver.global.jwt;
+
+/**
+ * Verified identity carried by an access token.
+ *
+ * @param userId          The user ID (token subject).
+ * @param role            The role claim, e.g. "ROLE_USER".
+ * @param tokenId         The {@code jti} claim used for revocation; null for tokens issued without one.
+ * @param expiresAtMillis The token's expiration time.
+ */
+public record JwtPrincipal(
+        Long userId,
+        String role,
+        String tokenId,
+        long expiresAtMillis
+) {
+}
@@ -2,9 +2,13 @@ package org.example.userserver.global.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -24,20 +29,43 @@ public class JwtUtil {
     @Getter
     private final long refreshTokenExpiration;
     private SecretKey secretKey;
+    // JwtParser is immutable and thread-safe, so a single instance is shared by every verification.
+    private JwtParser parser;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
 
     public JwtUtil(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
-            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration
+            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration,
+            @Value("${jwt.cache.max-size:100000}") int cacheMaxSize,
+            MeterRegistry meterRegistry
     ) {
         this.secret = secret;
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = refreshTokenExpiration;
+        this.verifiedTokenCache = new VerifiedTokenCache(cacheMaxSize);
+
+        this.cacheHits = Counter.builder("jwt.verification.cache")
+                .description("Access tokens resolved from the verified-token cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("jwt.verification.cache")
+                .description("Access tokens that required a signature check")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("jwt.verification.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                .description("Number of verified access tokens currently cached")
+                .register(meterRegistry);
     }
 
     @PostConstruct
     protected void init() {
         secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
     }
 
     public String generateAccessToken(Long userId, String role) {
@@ -54,6 +82,7 @@ public class JwtUtil {
 
         io.jsonwebtoken.JwtBuilder builder = Jwts.builder()
                 .subject(String.valueOf(userId))
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(validity)
                 .signWith(secretKey);
@@ -84,12 +113,45 @@ public class JwtUtil {
         return getClaimsFromToken(token).get("role", String.class);
     }
 
+    /**
+     * Verifies an access token and returns its principal, parsing the token at most once.
+     * A verified principal is cached until the token's expiration, so repeated requests with the
+     * same token skip both the signature check and claims parsing.
+     * @param token The access token to verify.
+     * @return The user ID and role carried by the token.
+     * @throws JwtException if the token is invalid or expired.
+     */
+    public JwtPrincipal resolvePrincipal(String token) throws JwtException {
+        long now = System.currentTimeMillis();
+        JwtPrincipal cached = verifiedTokenCache.get(token, now);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        cacheMisses.increment();
+        Claims claims = getClaimsFromToken(token);
+        Date expiration = claims.getExpiration();
+        JwtPrincipal principal;
+        try {
+            principal = new JwtPrincipal(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get("role", String.class),
+                    claims.getId(),
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE
+            );
+        } catch (NumberFormatException e) {
+            throw new JwtException("Invalid JWT subject", e);
+        }
+        if (expiration != null) {
+            verifiedTokenCache.put(token, principal, expiration.getTime(), now);
+        }
+        return principal;
+    }
 
     public Claims getClaimsFromToken(String token) throws JwtException {
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
+            return parser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
@@ -0,0 +1,82 @@
+package org.example.userserver.global.jwt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory mirror of revoked access-token IDs: a Bloom filter in front of an exact map.
+ * Almost every lookup is for a token that was never revoked, and the Bloom filter rejects those with a
+ * few array reads and no allocation. A filter hit is confirmed against the exact map, so false positives
+ * never reject a valid token. Entries are only added; expired ones are dropped when the set is rebuilt.
+ */
+class RevokedTokenSet {
+
+    private static final int HASH_COUNT = 7;
+    // ~10 bits per entry with 7 hashes gives a false-positive rate of about 1% at the expected size.
+    private static final int BITS_PER_ENTRY = 10;
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    RevokedTokenSet(int expectedEntries) {
+        long requested = (long) Math.max(expectedEntries, 1024) * BITS_PER_ENTRY;
+        this.bitCount = (int) Math.min(requested, Integer.MAX_VALUE - 63L);
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    void add(String tokenId, long expiresAtMillis) {
+        expiries.merge(tokenId, expiresAtMillis, Math::max);
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean contains(String tokenId) {
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return expiries.containsKey(tokenId);
+    }
+
+    /**
+     * Copies the entries that have not expired yet into another set.
+     */
+    void copyUnexpiredTo(RevokedTokenSet target, long nowMillis) {
+        expiries.forEach((tokenId, expiresAt) -> {
+            if (expiresAt > nowMillis) {
+                target.add(tokenId, expiresAt);
+            }
+        });
+    }
+
+    int size() {
+        return expiries.size();
+    }
+
+    // 64-bit FNV-1a; the two halves feed double hashing.
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
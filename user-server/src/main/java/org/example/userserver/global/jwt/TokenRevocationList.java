@@ -0,0 +1,124 @@
+package org.example.userserver.global.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Revocation list for access tokens, identified by their {@code jti} claim.
+ * The source of truth is the Redis sorted set {@value #REVOKED_KEY} (member = token ID, score = token expiry),
+ * which this service writes and chat-server reads. Each instance mirrors it in a {@link RevokedTokenSet}
+ * so that request authentication never goes to Redis:
+ * <ul>
+ *     <li>New revocations are announced on the {@value #CHANNEL} channel as {@code tokenId:expiresAtMillis}.</li>
+ *     <li>The mirror is rebuilt from the sorted set on startup and periodically, which repairs missed
+ *     pub/sub messages and drops tokens that have expired anyway.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements MessageListener {
+
+    public static final String REVOKED_KEY = "revoked:access";
+    public static final String CHANNEL = "revocation:access";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int expectedEntries;
+    private volatile RevokedTokenSet revoked;
+
+    public TokenRevocationList(
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.revocation.expected-entries:100000}") int expectedEntries
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.expectedEntries = expectedEntries;
+        this.revoked = new RevokedTokenSet(expectedEntries);
+
+        Gauge.builder("jwt.revocation.size", this, list -> list.revoked.size())
+                .description("Number of revoked access tokens mirrored locally")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the local mirror; never touches Redis.
+     * @param tokenId The {@code jti} of the token, or null for tokens issued without one.
+     * @return True if the token has been revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.contains(tokenId);
+    }
+
+    /**
+     * Revokes an access token until its expiration and notifies every instance of both services.
+     * @param tokenId The {@code jti} of the token.
+     * @param expiresAtMillis The token's expiration time.
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        revoked.add(tokenId, expiresAtMillis);
+        redisTemplate.opsForZSet().add(REVOKED_KEY, tokenId, expiresAtMillis);
+        redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, now);
+        redisTemplate.convertAndSend(CHANNEL, tokenId + ":" + expiresAtMillis);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+            return;
+        }
+        try {
+            revoked.add(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.revocation.resync-interval-ms:60000}", initialDelayString = "${app.revocation.resync-interval-ms:60000}")
+    public void resync() {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> entries;
+        try {
+            entries = redisTemplate.opsForZSet().rangeByScoreWithScores(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+        } catch (Exception e) {
+            log.warn("Failed to resync the access-token revocation list, keeping the current mirror: {}", e.getMessage());
+            return;
+        }
+
+        RevokedTokenSet current = revoked;
+        RevokedTokenSet next = new RevokedTokenSet(Math.max(expectedEntries, current.size() * 2));
+        if (entries != null) {
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() != null && entry.getScore() != null) {
+                    next.add(entry.getValue(), entry.getScore().longValue());
+                }
+            }
+        }
+        // Revocations received over pub/sub while Redis was being read must not be lost by the swap.
+        // The second copy catches anything added to the old set between the first copy and the swap.
+        current.copyUnexpiredTo(next, now);
+        revoked = next;
+        current.copyUnexpiredTo(next, now);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.userserver.global.jwt;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of access tokens whose signature has already been verified.
+ * Entries are keyed by the token's signature segment (itself an HMAC digest of the token) and confirmed
+ * against the full token on lookup, so a hit always belongs to exactly the token that was verified.
+ * Entries expire at the token's {@code exp}. When the cache is full, the least recently used token is
+ * evicted, so a full cache costs O(1) per request instead of a scan.
+ */
+class VerifiedTokenCache {
+
+    record Entry(String token, JwtPrincipal principal, long expiresAtMillis) {}
+
+    private final int maxSize;
+    // Access-ordered; guarded by this.
+    private final LinkedHashMap<String, Entry> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    synchronized JwtPrincipal get(String token, long nowMillis) {
+        String key = keyOf(token);
+        Entry cached = entries.get(key);
+        if (cached == null || !cached.token().equals(token)) {
+            return null;
+        }
+        if (cached.expiresAtMillis() <= nowMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return cached.principal();
+    }
+
+    synchronized void put(String token, JwtPrincipal principal, long expiresAtMillis, long nowMillis) {
+        if (maxSize <= 0 || expiresAtMillis <= nowMillis) {
+            return;
+        }
+        entries.put(keyOf(token), new Entry(token, principal, expiresAtMillis));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static String keyOf(String token) {
+        int lastDot = token.lastIndexOf('.');
+        return lastDot >= 0 ? token.substring(lastDot + 1) : token;
+    }
+}
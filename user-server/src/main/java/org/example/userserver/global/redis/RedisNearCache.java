@@ -0,0 +1,127 @@
+package org.example.userserver.global.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process near-cache for small, hot, rarely written string keys such as {@code summary:{id}}.
+ * Reads are served from local memory; misses (including absent keys) are loaded with a single GET.
+ * Writers announce changed keys on the {@value #INVALIDATION_CHANNEL} channel, and every instance drops
+ * its copy, which is the same contract as Redis client-side caching with broadcast tracking.
+ * Entries also expire after {@code app.near-cache.ttl-ms}, which bounds staleness if an invalidation is missed
+ * (e.g. while the listener reconnects). When the cache is full, expired entries are purged and,
+ * if it is still full, new keys are simply not cached.
+ */
+@Slf4j
+@Component
+public class RedisNearCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "near-cache:invalidate";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so a load racing with an invalidation does not cache the old value.
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidated;
+
+    public RedisNearCache(
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.near-cache.max-size:10000}") int maxSize,
+            @Value("${app.near-cache.ttl-ms:60000}") long ttlMillis
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.hits = Counter.builder("redis.near_cache.requests")
+                .description("Near-cache reads served from local memory")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("redis.near_cache.requests")
+                .description("Near-cache reads that required a Redis GET")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.invalidated = Counter.builder("redis.near_cache.invalidations")
+                .description("Near-cache keys invalidated by writers")
+                .register(meterRegistry);
+        Gauge.builder("redis.near_cache.size", entries, ConcurrentHashMap::size)
+                .description("Number of keys held by the near-cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads a string key, from local memory when possible.
+     * @param key The Redis key.
+     * @return The value, or null if the key does not exist.
+     */
+    public String get(String key) {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.value();
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        String value = redisTemplate.opsForValue().get(key);
+        if (canAdd(key, now)) {
+            Entry loaded = new Entry(value, now + ttlMillis);
+            entries.put(key, loaded);
+            // An invalidation that arrived during the GET may refer to a newer value than the one loaded.
+            if (invalidations.get() != generation) {
+                entries.remove(key, loaded);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the local copy of a key on this instance only.
+     */
+    public void invalidate(String key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+        invalidated.increment();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    private boolean canAdd(String key, long now) {
+        if (maxSize <= 0) {
+            return false;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            purgeExpired();
+            return entries.size() < maxSize;
+        }
+        return true;
+    }
+
+    private record Entry(String value, long expiresAtMillis) {}
+}
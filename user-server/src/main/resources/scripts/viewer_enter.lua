@@ -0,0 +1,46 @@
+-- Marks a viewer as present in a stream and returns the live viewer count.
+-- KEYS[1] presence sorted set (member = user ID, score = last seen), KEYS[2] compact-mode marker,
+-- KEYS[3] HyperLogLog of the current time bucket, KEYS[4] HyperLogLog of the previous time bucket,
+-- KEYS[5] set of stream IDs with presence, KEYS[6] popularity ranking (member = stream ID, score = viewer count)
+-- ARGV[1] user ID, ARGV[2] now (ms), ARGV[3] presence TTL (ms), ARGV[4] largest count kept exact,
+-- ARGV[5] stream ID
+--
+-- A stream starts in exact mode. Once more than ARGV[4] viewers are live, the live members are folded
+-- into the current bucket's HyperLogLog and the sorted set is dropped; the count is then the number of
+-- distinct viewers seen in the current and previous buckets. Buckets and the marker expire after two
+-- TTLs without activity, which returns the stream to exact mode.
+
+local now = tonumber(ARGV[2])
+local ttl = tonumber(ARGV[3])
+local bucketExpiry = 2 * ttl
+redis.call('SADD', KEYS[5], ARGV[5])
+
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    redis.call('PFADD', KEYS[3], ARGV[1])
+    redis.call('PEXPIRE', KEYS[3], bucketExpiry)
+    redis.call('PEXPIRE', KEYS[2], bucketExpiry)
+    local estimated = redis.call('PFCOUNT', KEYS[3], KEYS[4])
+    redis.call('ZADD', KEYS[6], estimated, ARGV[5])
+    return estimated
+end
+
+redis.call('ZADD', KEYS[1], now, ARGV[1])
+local count = redis.call('ZCOUNT', KEYS[1], now - ttl, '+inf')
+redis.call('ZADD', KEYS[6], count, ARGV[5])
+if count <= tonumber(ARGV[4]) then
+    return count
+end
+
+-- Switch to compact mode. Chunks keep PFADD below Lua's argument limit.
+local offset = 0
+repeat
+    local members = redis.call('ZRANGEBYSCORE', KEYS[1], now - ttl, '+inf', 'LIMIT', offset, 1000)
+    if #members > 0 then
+        redis.call('PFADD', KEYS[3], unpack(members))
+    end
+    offset = offset + #members
+until #members < 1000
+redis.call('PEXPIRE', KEYS[3], bucketExpiry)
+redis.call('SET', KEYS[2], '1', 'PX', bucketExpiry)
+redis.call('DEL', KEYS[1])
+return count
@@ -0,0 +1,22 @@
+-- Refreshes the last-seen time of a batch of viewers of one stream.
+-- KEYS[1] presence sorted set, KEYS[2] compact-mode marker, KEYS[3] HyperLogLog of the current time bucket,
+-- KEYS[4] set of stream IDs with presence
+-- ARGV[1] now (ms), ARGV[2] presence TTL (ms), ARGV[3] stream ID, ARGV[4..] user IDs
+
+local now = ARGV[1]
+local bucketExpiry = 2 * tonumber(ARGV[2])
+redis.call('SADD', KEYS[4], ARGV[3])
+
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    for i = 4, #ARGV do
+        redis.call('PFADD', KEYS[3], ARGV[i])
+    end
+    redis.call('PEXPIRE', KEYS[3], bucketExpiry)
+    redis.call('PEXPIRE', KEYS[2], bucketExpiry)
+    return #ARGV - 3
+end
+
+for i = 4, #ARGV do
+    redis.call('ZADD', KEYS[1], now, ARGV[i])
+end
+return #ARGV - 3
@@ -0,0 +1,21 @@
+-- Removes a viewer from a stream and returns the live viewer count.
+-- KEYS[1] presence sorted set, KEYS[2] compact-mode marker,
+-- KEYS[3] HyperLogLog of the current time bucket, KEYS[4] HyperLogLog of the previous time bucket,
+-- KEYS[5] popularity ranking (member = stream ID, score = viewer count)
+-- ARGV[1] user ID, ARGV[2] now (ms), ARGV[3] presence TTL (ms), ARGV[4] stream ID
+--
+-- A HyperLogLog cannot forget a member, so in compact mode a viewer who left stays counted until
+-- their buckets age out.
+
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return redis.call('PFCOUNT', KEYS[3], KEYS[4])
+end
+
+redis.call('ZREM', KEYS[1], ARGV[1])
+local count = redis.call('ZCOUNT', KEYS[1], tonumber(ARGV[2]) - tonumber(ARGV[3]), '+inf')
+if count > 0 then
+    redis.call('ZADD', KEYS[5], count, ARGV[4])
+else
+    redis.call('ZREM', KEYS[5], ARGV[4])
+end
+return count
@@ -0,0 +1,39 @@
+-- Removes up to ARGV[2] expired viewers from one stream and returns {removed, liveCount, compact}.
+-- KEYS[1] presence sorted set, KEYS[2] compact-mode marker,
+-- KEYS[3] HyperLogLog of the current time bucket, KEYS[4] HyperLogLog of the previous time bucket,
+-- KEYS[5] set of stream IDs with presence, KEYS[6] popularity ranking (member = stream ID, score = viewer count)
+-- ARGV[1] expiry cutoff (ms), ARGV[2] batch size, ARGV[3] stream ID
+--
+-- Bounding the batch keeps each call short even when a very large stream expires at once;
+-- the rest is removed on the following sweeps. Compact-mode streams have nothing to remove,
+-- since their time buckets expire on their own; only their current count is returned.
+-- Every sweep also rewrites the stream's ranking score, which picks up viewers revived by heartbeats.
+-- A stream without live viewers is removed from the ranking rather than kept with a score of 0.
+
+local function rank(count)
+    if count > 0 then
+        redis.call('ZADD', KEYS[6], count, ARGV[3])
+    else
+        redis.call('ZREM', KEYS[6], ARGV[3])
+    end
+end
+
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    local estimated = redis.call('PFCOUNT', KEYS[3], KEYS[4])
+    rank(estimated)
+    return {0, estimated, 1}
+end
+
+local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+if #expired > 0 then
+    redis.call('ZREM', KEYS[1], unpack(expired))
+end
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    redis.call('SREM', KEYS[5], ARGV[3])
+    redis.call('ZREM', KEYS[6], ARGV[3])
+    return {#expired, 0, 0}
+end
+-- Expired viewers beyond the batch may be all that is left, which also counts as no live viewers.
+local count = redis.call('ZCOUNT', KEYS[1], ARGV[1], '+inf')
+rank(count)
+return {#expired, count, 0}
@@ -0,0 +1,52 @@
+package org.example.userserver.domain.stream.dto;
+
+import org.example.userserver.domain.stream.exception.StreamException;
+import org.example.userserver.domain.stream.exception.StreamExceptionDetails;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamCursorTest {
+
+    @Test
+    void decodeReturnsTheEncodedPosition() {
+        StreamCursor cursor = new StreamCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_000_000), 42L);
+
+        assertThat(StreamCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new StreamCursor(LocalDateTime.of(2025, 3, 1, 12, 30), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2025-03-01T12:30", "|42", "not-a-date|42", "2025-03-01T12:30|abc"})
+    void decodeRejectsMalformedContent(String raw) {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertInvalid(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "2025-03-01T12:30|42"})
+    void decodeRejectsInputThatIsNotAnEncodedCursor(String cursor) {
+        assertInvalid(cursor);
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> StreamCursor.decode(cursor))
+                .isInstanceOf(StreamException.class)
+                .extracting(e -> ((StreamException) e).getExceptionDetails())
+                .isEqualTo(StreamExceptionDetails.INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.userserver.domain.stream.service;
+
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamSearchIndexTest {
+
+    private StreamSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // The repository is only used by build() and refresh().
+        index = new StreamSearchIndex(null);
+        index.index(List.of(
+                entry(1L, 10L, "Late night coding", "Alice"),
+                entry(2L, 20L, "게임 방송 정주행", "Bob"),
+                entry(3L, 30L, "Morning run", "Night Owl")
+        ));
+    }
+
+    @Test
+    void findsSubstringsOfTitlesAndHostNamesIgnoringCase() {
+        assertThat(index.search("NIGHT")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("게임")).containsExactly(2L);
+        assertThat(index.search("ali")).containsExactly(1L);
+    }
+
+    @Test
+    void confirmsCandidatesWithASubstringCheck() {
+        index.index(List.of(entry(4L, 40L, "abc bcd", "Carol")));
+
+        // "abcd" shares every bigram with "abc bcd" but is not a substring of it.
+        assertThat(index.search("abcd")).isEmpty();
+        assertThat(index.search("abc")).containsExactly(4L);
+    }
+
+    @Test
+    void reindexingReplacesTheOldText() {
+        index.index(List.of(entry(1L, 10L, "Early morning coding", "Alice")));
+
+        assertThat(index.search("late")).isEmpty();
+        assertThat(index.search("morning")).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void removedStreamsAreNotFound() {
+        index.remove(Set.of(3L));
+
+        assertThat(index.search("night")).containsExactly(1L);
+        assertThat(index.search("owl")).isEmpty();
+    }
+
+    @Test
+    void removedStreamsCanBeIndexedAgain() {
+        index.remove(Set.of(2L));
+        index.index(List.of(entry(2L, 20L, "게임 방송 다시보기", "Bob")));
+
+        assertThat(index.search("다시")).containsExactly(2L);
+    }
+
+    @Test
+    void queriesWithoutAFullBigramMatchNothing() {
+        assertThat(index.search("a")).isEmpty();
+        assertThat(index.search("  ")).isEmpty();
+        assertThat(index.search("zz")).isEmpty();
+    }
+
+    private static StreamCatalogEntryDto entry(Long id, Long hostId, String title, String hostName) {
+        return StreamCatalogEntryDto.builder()
+                .id(id)
+                .hostId(hostId)
+                .title(title)
+                .hostName(hostName)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id))
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.userserver.domain.stream.service;
+
+import org.example.userserver.domain.stream.dto.StreamCatalogEntryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamVersionsTest {
+
+    private static final StreamCatalogEntryDto STREAM = StreamCatalogEntryDto.builder()
+            .id(1L).hostId(7L).title("title").hostName("host")
+            .createdAt(LocalDateTime.of(2026, 1, 1, 12, 0))
+            .build();
+
+    @Test
+    void instancesWithTheSameStateComputeTheSameTag() {
+        StreamVersions first = new StreamVersions(60_000);
+        StreamVersions second = new StreamVersions(60_000);
+        first.viewerCountChanged(1L, 5);
+        second.viewerCountChanged(1L, 5);
+
+        StreamCatalog.CatalogPage page = new StreamCatalog.CatalogPage(List.of(STREAM), false, 0, 20);
+
+        assertThat(first.pageTag(page, null)).isEqualTo(second.pageTag(page, null));
+    }
+
+    @Test
+    void theTagChangesWithTheViewerCount() {
+        StreamVersions versions = new StreamVersions(60_000);
+        StreamCatalog.CatalogPage page = new StreamCatalog.CatalogPage(List.of(STREAM), false, 0, 20);
+        versions.viewerCountChanged(1L, 5);
+        String before = versions.pageTag(page, null);
+
+        versions.viewerCountChanged(1L, 6);
+
+        assertThat(versions.pageTag(page, null)).isNotEqualTo(before);
+    }
+
+    @Test
+    void theTagCoversThePaginationFields() {
+        StreamVersions versions = new StreamVersions(60_000);
+        StreamCatalog.CatalogPage last = new StreamCatalog.CatalogPage(List.of(STREAM), false, 0, 1);
+        StreamCatalog.CatalogPage notLast = new StreamCatalog.CatalogPage(List.of(STREAM), true, 0, 1);
+
+        assertThat(versions.pageTag(notLast, "cursor")).isNotEqualTo(versions.pageTag(last, null));
+        assertThat(versions.pageTag(notLast, "cursor")).isNotEqualTo(versions.pageTag(notLast, "other"));
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.userserver.global.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+    private static final long EXPIRES_AT = NOW + 60_000L;
+
+    @Test
+    void returnsThePrincipalOfACachedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        JwtPrincipal principal = principal(1L);
+        cache.put("h.p.sig1", principal, EXPIRES_AT, NOW);
+
+        assertThat(cache.get("h.p.sig1", NOW)).isEqualTo(principal);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedTokenWhenFull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("h.p.sig1", principal(1L), EXPIRES_AT, NOW);
+        cache.put("h.p.sig2", principal(2L), EXPIRES_AT, NOW);
+        // Touch the first token, so the second becomes the eldest.
+        cache.get("h.p.sig1", NOW);
+
+        cache.put("h.p.sig3", principal(3L), EXPIRES_AT, NOW);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("h.p.sig1", NOW)).isNotNull();
+        assertThat(cache.get("h.p.sig2", NOW)).isNull();
+        assertThat(cache.get("h.p.sig3", NOW)).isNotNull();
+    }
+
+    @Test
+    void dropsExpiredTokensOnLookup() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("h.p.sig1", principal(1L), EXPIRES_AT, NOW);
+
+        assertThat(cache.get("h.p.sig1", EXPIRES_AT)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void doesNotCacheTokensThatAreAlreadyExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("h.p.sig1", principal(1L), NOW, NOW);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void aSignatureMatchAloneIsNotAHit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("h.p.sig1", principal(1L), EXPIRES_AT, NOW);
+
+        assertThat(cache.get("h.other.sig1", NOW)).isNull();
+    }
+
+    @Test
+    void aZeroSizeCacheStoresNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("h.p.sig1", principal(1L), EXPIRES_AT, NOW);
+
+        assertThat(cache.get("h.p.sig1", NOW)).isNull();
+    }
+
+    private static JwtPrincipal principal(Long userId) {
+        return new JwtPrincipal(userId, "ROLE_USER", "jti-" + userId, EXPIRES_AT);
+    }
+}